@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.InetAddress;
 import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
 
@@ -333,6 +334,44 @@ public interface Connection extends AutoCloseable {
      */
     Message request(Message message, Duration timeout) throws InterruptedException;
 
+    /**
+     * Send a request that any number of responders may reply to, for instance a scatter-gather over shards,
+     * and give each reply to the handler, on the calling thread, as it arrives. Returns when the first of these happens:
+     * <ul>
+     * <li>maxWait has passed since the request was sent</li>
+     * <li>maxCount replies have been received</li>
+     * <li>stallTime has passed since the last reply, after at least one reply was received</li>
+     * <li>the server reports there are no responders</li>
+     * </ul>
+     * The replies share the connection's response inbox subscription, the same one used by
+     * {@link #request(String, byte[]) request()}, so no subscription is made per call.
+     *
+     * @param subject the subject for the services that will handle the request
+     * @param headers Optional headers to publish with the message.
+     * @param body the content of the message
+     * @param maxWait the maximum time to wait for replies
+     * @param maxCount the maximum number of replies or less than 1 for no maximum
+     * @param stallTime the maximum time to wait for the next reply once replies are arriving or null to not stop when replies stall
+     * @param handler the handler for each reply
+     * @return the number of replies
+     * @throws InterruptedException if one is thrown while waiting, in order to propagate it up
+     */
+    int requestMany(String subject, Headers headers, byte[] body, Duration maxWait, int maxCount, Duration stallTime, MessageHandler handler) throws InterruptedException;
+
+    /**
+     * Send a request that any number of responders may reply to and collect the replies,
+     * see {@link #requestMany(String, Headers, byte[], Duration, int, Duration, MessageHandler) requestMany()}
+     *
+     * @param subject the subject for the services that will handle the request
+     * @param body the content of the message
+     * @param maxWait the maximum time to wait for replies
+     * @param maxCount the maximum number of replies or less than 1 for no maximum
+     * @param stallTime the maximum time to wait for the next reply once replies are arriving or null to not stop when replies stall
+     * @return the replies, in the order they arrived
+     * @throws InterruptedException if one is thrown while waiting, in order to propagate it up
+     */
+    List<Message> requestMany(String subject, byte[] body, Duration maxWait, int maxCount, Duration stallTime) throws InterruptedException;
+
     /**
      * Create a synchronous subscription to the specified subject.
      * 
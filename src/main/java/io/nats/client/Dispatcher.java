@@ -177,4 +177,22 @@ public interface Dispatcher extends Consumer {
      * @throws IllegalStateException if the Subscription is not managed by this dispatcher
      */
     Dispatcher unsubscribe(Subscription subscription, int after);
+
+    /**
+     * Set the codec that decodes the payloads of messages delivered by this dispatcher that are marked
+     * with the {@value PayloadCodec#CONTENT_ENCODING_HDR} header of the codec. When not set, the connection's
+     * {@link Options#getPayloadCodec() payload codec} is used.
+     *
+     * @param payloadCodec the codec
+     * @return The Dispatcher, so calls can be chained.
+     */
+    Dispatcher setPayloadCodec(PayloadCodec payloadCodec);
+
+    /**
+     * Get the number of requests this dispatcher discarded because their deadline had passed,
+     * see {@link Options.Builder#discardExpiredRequests() discardExpiredRequests()}.
+     *
+     * @return the number of expired requests
+     */
+    long getExpiredCount();
 }
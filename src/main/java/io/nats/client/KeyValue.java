@@ -16,7 +16,11 @@ import io.nats.client.api.*;
 import io.nats.client.impl.NatsKeyValueWatchSubscription;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Key Value Store Management context for creation and access to key value buckets.
@@ -147,6 +151,68 @@ public interface KeyValue {
      */
     void purge(String key) throws IOException, JetStreamApiException;
 
+    /**
+     * Get the entry for a key without waiting for the response.
+     * The future completes with null if the key is not found or is not live.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @return the future for the KvEntry object
+     */
+    CompletableFuture<KeyValueEntry> getAsync(String key);
+
+    /**
+     * Put a byte[] as the value for a key without waiting for the ack.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @param value the bytes of the value
+     * @return the future for the revision number for the key
+     */
+    CompletableFuture<Long> putAsync(String key, byte[] value);
+
+    /**
+     * Put a string as the value for a key without waiting for the ack.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @param value the UTF-8 string
+     * @return the future for the revision number for the key
+     */
+    CompletableFuture<Long> putAsync(String key, String value);
+
+    /**
+     * Put as the value for a key iff the key exists and its last revision matches the expected,
+     * without waiting for the ack.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @param value the bytes of the value
+     * @param expectedRevision the expected last revision
+     * @return the future for the revision number for the key
+     */
+    CompletableFuture<Long> updateAsync(String key, byte[] value, long expectedRevision);
+
+    /**
+     * Put as the value for a key iff the key does not exist (there is no history)
+     * or is deleted (history shows the key is deleted), without waiting for the ack.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @param value the bytes of the value
+     * @return the future for the revision number for the key
+     */
+    CompletableFuture<Long> createAsync(String key, byte[] value);
+
+    /**
+     * Soft deletes the key by placing a delete marker, without waiting for the ack.
+     * If the maximum number of asynchronous operations are already in flight, waits for one to complete,
+     * see {@link KeyValueOptions.Builder#maxAsyncInFlight(int)}
+     * @param key the key
+     * @return the future for the revision number of the delete marker
+     */
+    CompletableFuture<Long> deleteAsync(String key);
+
     /**
      * Watch updates for a specific key.
      * @param key the key
@@ -172,6 +238,19 @@ public interface KeyValue {
      */
     NatsKeyValueWatchSubscription watchAll(KeyValueWatcher watcher, KeyValueWatchOption... watchOptions) throws IOException, JetStreamApiException, InterruptedException;
 
+    /**
+     * Create an in memory replica of the bucket. The replica is loaded with the current entries
+     * before this method returns and then follows updates until it is closed.
+     * @param loadTimeout the maximum time to wait for the replica to be loaded
+     * @return the replica
+     * @throws IOException covers various communication issues with the NATS
+     *         server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     * @throws TimeoutException if the replica was not loaded in time
+     */
+    KeyValueReplica createReplica(Duration loadTimeout) throws IOException, JetStreamApiException, InterruptedException, TimeoutException;
+
     /**
      * Get a list of the keys in a bucket.
      * @return List of keys
@@ -182,6 +261,41 @@ public interface KeyValue {
      */
     List<String> keys() throws IOException, JetStreamApiException, InterruptedException;
 
+    /**
+     * Get a list of the keys in a bucket filtered by a subject-like string, for instance "key" or "key.foo.*" or "key.&gt;".
+     * The filter is applied by the server.
+     * @param filter the subject like key filter
+     * @return List of keys
+     * @throws IOException covers various communication issues with the NATS
+     *         server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     */
+    List<String> keys(String filter) throws IOException, JetStreamApiException, InterruptedException;
+
+    /**
+     * Get a queue that receives the keys in the bucket as they arrive from the server.
+     * The queue is bounded, the server is flow controlled by how fast the queue is read,
+     * so memory use does not depend on the number of keys. Read the queue until a result
+     * that {@link KeyResult#isDone()}, which has the exception if the listing did not finish.
+     * If the queue is full and not read for the {@link KeyValueOptions.Builder#consumeKeysTimeout(java.time.Duration)
+     * consume keys timeout}, the listing stops and the queue is left holding only a result with the exception.
+     * @return the queue of key results
+     */
+    LinkedBlockingQueue<KeyResult> consumeKeys();
+
+    /**
+     * Get a queue that receives the keys in the bucket matching the filter as they arrive from the server.
+     * The queue is bounded, the server is flow controlled by how fast the queue is read,
+     * so memory use does not depend on the number of keys. Read the queue until a result
+     * that {@link KeyResult#isDone()}, which has the exception if the listing did not finish.
+     * If the queue is full and not read for the {@link KeyValueOptions.Builder#consumeKeysTimeout(java.time.Duration)
+     * consume keys timeout}, the listing stops and the queue is left holding only a result with the exception.
+     * @param filter the subject like key filter
+     * @return the queue of key results
+     */
+    LinkedBlockingQueue<KeyResult> consumeKeys(String filter);
+
     /**
      * Get the history (list of KeyValueEntry) for a key
      * @param key the key
@@ -222,4 +336,14 @@ public interface KeyValue {
      * @throws InterruptedException if the thread is interrupted
      */
     KeyValueStatus getStatus() throws IOException, JetStreamApiException, InterruptedException;
+
+    /**
+     * Stop the watch that keeps the near cache up to date and empty the cache.
+     * Gets read from the server after this. Does nothing if the near cache is not turned on
+     * with {@link KeyValueOptions.Builder#nearCacheMaxEntries(int)}.
+     * <p>Each KeyValue with the near cache turned on owns its own watch subscription and dispatcher.
+     * The application owns the KeyValue, so it must call this when it is done with it,
+     * otherwise the watch runs until the connection is closed.</p>
+     */
+    void closeNearCache();
 }
@@ -13,14 +13,72 @@
 
 package io.nats.client;
 
+import java.time.Duration;
+
 /**
  * The KeyValueOptions class specifies the general options for KeyValueO.
  * Options are created using the {@link KeyValueOptions.Builder Builder}.
  */
 public class KeyValueOptions extends FeatureOptions {
 
+    /**
+     * The default maximum number of asynchronous operations waiting for a response
+     */
+    public static final int DEFAULT_MAX_ASYNC_IN_FLIGHT = 1000;
+
+    private final int nearCacheMaxEntries;
+    private final Duration nearCacheTtl;
+    private final int maxAsyncInFlight;
+    private final Duration consumeKeysTimeout;
+
     private KeyValueOptions(Builder b) {
         super(b);
+        nearCacheMaxEntries = b.nearCacheMaxEntries;
+        nearCacheTtl = b.nearCacheTtl;
+        maxAsyncInFlight = b.maxAsyncInFlight;
+        consumeKeysTimeout = b.consumeKeysTimeout;
+    }
+
+    /**
+     * Gets the maximum number of entries held in the near cache. Zero means there is no near cache.
+     * @return the maximum number of entries
+     */
+    public int getNearCacheMaxEntries() {
+        return nearCacheMaxEntries;
+    }
+
+    /**
+     * Gets how long an entry can be served from the near cache before it must be read from the server again.
+     * Null means entries do not expire by time.
+     * @return the time to live or null
+     */
+    public Duration getNearCacheTtl() {
+        return nearCacheTtl;
+    }
+
+    /**
+     * Whether the near cache is enabled
+     * @return true if the near cache is enabled
+     */
+    public boolean isNearCacheEnabled() {
+        return nearCacheMaxEntries > 0;
+    }
+
+    /**
+     * Gets the maximum number of asynchronous operations that can be waiting for a response at once.
+     * @return the maximum in flight
+     */
+    public int getMaxAsyncInFlight() {
+        return maxAsyncInFlight;
+    }
+
+    /**
+     * Gets how long {@link KeyValue#consumeKeys()} waits for room in a full queue before it stops the listing.
+     * Null means the JetStream request timeout.
+     * @return the timeout or null
+     */
+    public Duration getConsumeKeysTimeout() {
+        return consumeKeysTimeout;
     }
 
     /**
@@ -55,6 +113,11 @@ public class KeyValueOptions extends FeatureOptions {
      */
     public static class Builder extends FeatureOptions.Builder<Builder, KeyValueOptions> {
 
+        private int nearCacheMaxEntries;
+        private Duration nearCacheTtl;
+        private int maxAsyncInFlight = DEFAULT_MAX_ASYNC_IN_FLIGHT;
+        private Duration consumeKeysTimeout;
+
         @Override
         protected Builder getThis() {
             return this;
@@ -66,6 +129,66 @@ public class KeyValueOptions extends FeatureOptions {
 
         public Builder(KeyValueOptions kvo) {
             super(kvo);
+            if (kvo != null) {
+                nearCacheMaxEntries = kvo.nearCacheMaxEntries;
+                nearCacheTtl = kvo.nearCacheTtl;
+                maxAsyncInFlight = kvo.maxAsyncInFlight;
+                consumeKeysTimeout = kvo.consumeKeysTimeout;
+            }
+        }
+
+        /**
+         * Turn on the client side near cache for {@link KeyValue#get(String)}, holding up to this many
+         * of the most recently used entries. Cached entries are kept up to date by a watch on the bucket,
+         * so a hit does not need a round trip to the server. The watch is started by the first get and
+         * runs until {@link KeyValue#closeNearCache()}, which the application must call when it is done with the KeyValue,
+         * or until the connection is closed. Less than 1 turns the near cache off, which is the default.
+         * @param nearCacheMaxEntries the maximum number of entries to cache
+         * @return the builder
+         */
+        public Builder nearCacheMaxEntries(int nearCacheMaxEntries) {
+            this.nearCacheMaxEntries = nearCacheMaxEntries < 1 ? 0 : nearCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * Set how long an entry can be served from the near cache before it is read from the server again.
+         * This bounds staleness in cases the watch cannot see, for instance if the stream is purged directly.
+         * Null, zero or negative means entries do not expire by time, which is the default.
+         * Only applies if the near cache is turned on with {@link #nearCacheMaxEntries(int)}
+         * @param nearCacheTtl the time to live
+         * @return the builder
+         */
+        public Builder nearCacheTtl(Duration nearCacheTtl) {
+            this.nearCacheTtl = nearCacheTtl == null || nearCacheTtl.isZero() || nearCacheTtl.isNegative() ? null : nearCacheTtl;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of asynchronous operations, like {@link KeyValue#putAsync(String, byte[])},
+         * that can be waiting for a response at once. When the window is full, starting another operation
+         * blocks until one completes. If none completes within the JetStream request timeout, the new operation
+         * is not started and its future completes exceptionally with a TimeoutException.
+         * Less than 1 means use the default, {@value KeyValueOptions#DEFAULT_MAX_ASYNC_IN_FLIGHT}.
+         * @param maxAsyncInFlight the maximum in flight
+         * @return the builder
+         */
+        public Builder maxAsyncInFlight(int maxAsyncInFlight) {
+            this.maxAsyncInFlight = maxAsyncInFlight < 1 ? DEFAULT_MAX_ASYNC_IN_FLIGHT : maxAsyncInFlight;
+            return this;
+        }
+
+        /**
+         * Set how long {@link KeyValue#consumeKeys()} waits for room when its queue is full, that is, how long
+         * the application can leave the queue unread before the listing stops. When it stops, the queue
+         * is left holding only a result with the exception.
+         * Null, zero or negative means use the JetStream request timeout, which is the default.
+         * @param consumeKeysTimeout the timeout
+         * @return the builder
+         */
+        public Builder consumeKeysTimeout(Duration consumeKeysTimeout) {
+            this.consumeKeysTimeout = consumeKeysTimeout == null || consumeKeysTimeout.isZero() || consumeKeysTimeout.isNegative() ? null : consumeKeysTimeout;
+            return this;
         }
 
         /**
@@ -0,0 +1,88 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+package io.nats.client;
+
+import io.nats.client.api.KeyValueEntry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * An in memory replica of a key value bucket. The replica is loaded with the last entry
+ * for every key and then follows updates to the bucket, so reads are answered locally
+ * without a round trip to the server. Reads reflect the bucket as of {@link #getLastRevision()}.
+ */
+public interface KeyValueReplica extends AutoCloseable {
+
+    /**
+     * Get the name of the bucket.
+     * @return the name
+     */
+    String getBucketName();
+
+    /**
+     * Get the entry for a key as currently held in the replica.
+     * @param key the key
+     * @return the KvEntry object or null if not found or the key is deleted or purged
+     */
+    KeyValueEntry get(String key);
+
+    /**
+     * Get a list of the keys in the replica, sorted.
+     * @return List of keys
+     */
+    List<String> keys();
+
+    /**
+     * Get a list of the keys in the replica that start with the prefix, sorted.
+     * @param prefix the key prefix
+     * @return List of keys
+     */
+    List<String> keys(String prefix);
+
+    /**
+     * Get the entries for the keys in the replica that start with the prefix, sorted by key.
+     * All entries are from the same revision of the bucket.
+     * @param prefix the key prefix
+     * @return List of KvEntry
+     */
+    List<KeyValueEntry> entries(String prefix);
+
+    /**
+     * Get the number of keys in the replica.
+     * @return the number of keys
+     */
+    int size();
+
+    /**
+     * Get the revision of the last update applied to the replica.
+     * @return the revision
+     */
+    long getLastRevision();
+
+    /**
+     * Wait for the replica to have applied an update with at least this revision,
+     * for instance the revision returned from a put, to read your own writes.
+     * @param revision the revision
+     * @param timeout the maximum time to wait
+     * @return true if the revision was applied, false if the wait timed out
+     * @throws InterruptedException if the thread is interrupted
+     */
+    boolean waitForRevision(long revision, Duration timeout) throws InterruptedException;
+
+    /**
+     * Stop following updates to the bucket. The replica keeps its data, but it will no longer change.
+     */
+    @Override
+    void close();
+}
@@ -50,6 +50,7 @@ public final class NUID {
     private long inc;
 
     private static final NUID globalNUID;
+    private static final ThreadLocal<NUID> threadLocalNUID = ThreadLocal.withInitial(NUID::new);
 
     static {
         globalNUID = new NUID();
@@ -79,6 +80,13 @@ public final class NUID {
         randomizePrefix();
     }
 
+    /**
+     * @return the number of characters in a NUID string
+     */
+    public static int totalLength() {
+        return totalLen;
+    }
+
     /**
      * @return the next NUID string from a shared global NUID instance
      */
@@ -93,12 +101,42 @@ public final class NUID {
         return globalNUID.nextSequence();
     }
 
+    /**
+     * Get the NUID instance owned by the calling thread. Since the instance is never
+     * shared with other threads, threads generating ids at a high rate do not contend with each other.
+     * Each instance has its own random prefix, so ids are still unique across threads.
+     * @return the NUID instance for the calling thread
+     */
+    public static NUID threadLocal() {
+        return threadLocalNUID.get();
+    }
+
+    /**
+     * @return the next NUID string from the NUID instance owned by the calling thread
+     */
+    public static String nextThreadLocal() {
+        return threadLocalNUID.get().next();
+    }
+
     /**
      * Generate the next NUID string from this instance.
      *
      * @return the next NUID string from this instance.
      */
-    public synchronized String next() {
+    public String next() {
+        char[] b = new char[totalLen];
+        next(b, 0);
+        return new String(b);
+    }
+
+    /**
+     * Generate the next NUID from this instance directly into the destination array,
+     * avoiding the intermediate String when the NUID is only part of a larger value.
+     *
+     * @param dest the array to write to, must have room for {@link #totalLength()} characters from the destination position
+     * @param destPos the position in the destination array to start writing at
+     */
+    public synchronized void next(char[] dest, int destPos) {
         // Increment and capture.
         seq += inc;
         if (seq >= maxSeq) {
@@ -107,15 +145,14 @@ public final class NUID {
         }
 
         // Copy prefix
-        char[] b = new char[totalLen];
-        System.arraycopy(pre, 0, b, 0, preLen);
+        System.arraycopy(pre, 0, dest, destPos, preLen);
 
         // copy in the seq
-        int i = b.length;
-        for (long l = seq; i > preLen; l /= base) {
-            b[--i] = digits[(int) (l % base)];
+        int i = destPos + totalLen;
+        int seqStart = destPos + preLen;
+        for (long l = seq; i > seqStart; l /= base) {
+            dest[--i] = digits[(int) (l % base)];
         }
-        return new String(b);
     }
 
     /**
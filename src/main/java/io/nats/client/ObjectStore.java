@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
 import java.security.NoSuchAlgorithmException;
 import java.util.List;
 
@@ -77,6 +78,18 @@ public interface ObjectStore {
      */
     ObjectInfo put(File file) throws IOException, JetStreamApiException, NoSuchAlgorithmException;
 
+    /**
+     * Place the contents of the file into a new object using the meta, for instance to set the chunk size.
+     * The file is read with a file channel, each chunk straight into the array that is published.
+     * @param meta the metadata for the object
+     * @param file the file
+     * @return the ObjectInfo for the saved object
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    ObjectInfo put(ObjectMeta meta, File file) throws IOException, JetStreamApiException, NoSuchAlgorithmException;
+
     /**
      * Get an object by name from the store, reading it into the output stream, if the object exists.
      * @param objectName The name of the object
@@ -89,6 +102,50 @@ public interface ObjectStore {
      */
     ObjectInfo get(String objectName, OutputStream outputStream) throws IOException, JetStreamApiException, InterruptedException, NoSuchAlgorithmException;
 
+    /**
+     * Get a stream to read an object. Chunks are pulled from the server as the stream is read,
+     * a limited number ahead of the reader (see {@link ObjectStoreOptions.Builder#maxPendingChunks(int)}),
+     * so memory use does not depend on the object size or how fast it is read.
+     * The digest is checked as the last chunk is read; a mismatch fails that read with an IOException.
+     * Once a read fails, every later read fails too.
+     * Close the stream if it is not read to the end. The consumer behind the stream is removed by the server
+     * after it is inactive for the JetStream request timeout times the max pending chunks, a stream left
+     * unread longer than that fails its next read.
+     * @param objectName The name of the object
+     * @return the stream
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws NoSuchAlgorithmException if the Digest Algorithm is not known. Currently, the only supported algorithm is SHA-256
+     */
+    InputStream getInputStream(String objectName) throws IOException, JetStreamApiException, NoSuchAlgorithmException;
+
+    /**
+     * Get a range of bytes of an object without reading the whole object.
+     * Only the chunks that hold the range are read, in parallel.
+     * If the range goes past the end of the object, only the bytes to the end are returned.
+     * The object digest is not checked since the whole object is not read.
+     * @param objectName The name of the object
+     * @param offset the offset of the first byte in the object
+     * @param length the number of bytes
+     * @return the bytes
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     * @throws InterruptedException if the thread is interrupted
+     */
+    byte[] getRange(String objectName, long offset, int length) throws IOException, JetStreamApiException, InterruptedException;
+
+    /**
+     * Get a read only channel for an object, for random access to the bytes.
+     * Use {@link java.nio.channels.Channels#newInputStream(java.nio.channels.ReadableByteChannel)} for a stream view.
+     * Reads only read the chunks that hold the requested bytes.
+     * The object digest is not checked since the whole object is not necessarily read.
+     * @param objectName The name of the object
+     * @return the channel
+     * @throws IOException covers various communication issues with the NATS server such as timeout or interruption
+     * @throws JetStreamApiException the request had an error related to the data
+     */
+    SeekableByteChannel getChannel(String objectName) throws IOException, JetStreamApiException;
+
     /**
      * Get the info for an object if the object exists / is not deleted.
      * @param objectName The name of the object
@@ -13,14 +13,68 @@
 
 package io.nats.client;
 
+import java.io.File;
+
 /**
  * The ObjectStoreOptions class specifies the general options for ObjectStore.
  * Options are created using the {@link ObjectStoreOptions.Builder Builder}.
  */
 public class ObjectStoreOptions extends FeatureOptions {
 
+    /**
+     * The default maximum number of chunks published during a put that can be waiting for their ack,
+     * also the number of chunks requested at once when reading a range or ahead of an object input stream
+     */
+    public static final int DEFAULT_MAX_PENDING_CHUNKS = 32;
+
+    /**
+     * The default maximum total size in bytes of the objects kept in the disk cache, 1 GiB
+     */
+    public static final long DEFAULT_DISK_CACHE_MAX_BYTES = 1024L * 1024 * 1024;
+
+    private final int maxPendingChunks;
+    private final boolean deduplicate;
+    private final File diskCacheDirectory;
+    private final long diskCacheMaxBytes;
+
     private ObjectStoreOptions(Builder b) {
         super(b);
+        maxPendingChunks = b.maxPendingChunks;
+        deduplicate = b.deduplicate;
+        diskCacheDirectory = b.diskCacheDirectory;
+        diskCacheMaxBytes = b.diskCacheMaxBytes;
+    }
+
+    /**
+     * Gets the maximum number of chunks published during a put that can be waiting for their ack.
+     * @return the maximum pending chunks
+     */
+    public int getMaxPendingChunks() {
+        return maxPendingChunks;
+    }
+
+    /**
+     * Whether puts whose content is already in the bucket store a link instead of the content
+     * @return the deduplicate flag
+     */
+    public boolean isDeduplicate() {
+        return deduplicate;
+    }
+
+    /**
+     * Gets the directory of the disk cache
+     * @return the directory or null if objects are not cached
+     */
+    public File getDiskCacheDirectory() {
+        return diskCacheDirectory;
+    }
+
+    /**
+     * Gets the maximum total size in bytes of the objects kept in the disk cache
+     * @return the maximum bytes
+     */
+    public long getDiskCacheMaxBytes() {
+        return diskCacheMaxBytes;
     }
 
     /**
@@ -55,6 +109,11 @@ public class ObjectStoreOptions extends FeatureOptions {
      */
     public static class Builder extends FeatureOptions.Builder<Builder, ObjectStoreOptions> {
 
+        private int maxPendingChunks = DEFAULT_MAX_PENDING_CHUNKS;
+        private boolean deduplicate;
+        private File diskCacheDirectory;
+        private long diskCacheMaxBytes = DEFAULT_DISK_CACHE_MAX_BYTES;
+
         @Override
         protected Builder getThis() {
             return this;
@@ -66,6 +125,70 @@ public class ObjectStoreOptions extends FeatureOptions {
 
         public Builder(ObjectStoreOptions oso) {
             super(oso);
+            if (oso != null) {
+                maxPendingChunks = oso.maxPendingChunks;
+                deduplicate = oso.deduplicate;
+                diskCacheDirectory = oso.diskCacheDirectory;
+                diskCacheMaxBytes = oso.diskCacheMaxBytes;
+            }
+        }
+
+        /**
+         * Set the maximum number of chunks published during a put that can be waiting for their ack.
+         * Chunks are published without waiting for the previous ack, so a put is not limited
+         * to one chunk per round trip. 1 publishes one chunk at a time.
+         * This is also the number of chunks requested at once when reading a range of an object,
+         * and how many chunks an object input stream reads ahead.
+         * Less than 1 means use the default, {@value ObjectStoreOptions#DEFAULT_MAX_PENDING_CHUNKS}.
+         * @param maxPendingChunks the maximum pending chunks
+         * @return the builder
+         */
+        public Builder maxPendingChunks(int maxPendingChunks) {
+            this.maxPendingChunks = maxPendingChunks < 1 ? DEFAULT_MAX_PENDING_CHUNKS : maxPendingChunks;
+            return this;
+        }
+
+        /**
+         * Turn on deduplication. When a byte array or file is put under a name that already holds
+         * the same content, only the meta is published and the existing chunks are kept instead of uploading
+         * the content again. The content is only digested when the size matches.
+         * Content is not shared between objects of different names, since deleting an object purges its chunks.
+         * Puts from an InputStream are not deduplicated since the digest is not known until the content has been sent.
+         * @param deduplicate the deduplicate flag
+         * @return the builder
+         */
+        public Builder deduplicate(boolean deduplicate) {
+            this.deduplicate = deduplicate;
+            return this;
+        }
+
+        /**
+         * Set the directory of the disk cache. When set, objects read with get are saved in the directory
+         * by their digest, and a later get of an object with the same digest is served from the file,
+         * so only the object info is read from the server. Files are memory mapped to read them.
+         * The directory can be shared by processes, files are only ever added complete and
+         * the content is verified against the digest before it is added.
+         * Object stores in the same process that use the same directory share the cache,
+         * with the maximum size of the first one to use it.
+         * Null, the default, means objects are not cached.
+         * @param diskCacheDirectory the directory
+         * @return the builder
+         */
+        public Builder diskCacheDirectory(File diskCacheDirectory) {
+            this.diskCacheDirectory = diskCacheDirectory;
+            return this;
+        }
+
+        /**
+         * Set the maximum total size in bytes of the objects kept in the disk cache. When it is exceeded
+         * the least recently used objects are removed. Objects larger than this are not cached.
+         * Less than 1 means use the default, {@value ObjectStoreOptions#DEFAULT_DISK_CACHE_MAX_BYTES}.
+         * @param diskCacheMaxBytes the maximum bytes
+         * @return the builder
+         */
+        public Builder diskCacheMaxBytes(long diskCacheMaxBytes) {
+            this.diskCacheMaxBytes = diskCacheMaxBytes < 1 ? DEFAULT_DISK_CACHE_MAX_BYTES : diskCacheMaxBytes;
+            return this;
         }
 
         /**
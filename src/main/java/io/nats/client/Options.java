@@ -212,6 +212,18 @@ public class Options {
      */
     public static final boolean DEFAULT_DISCARD_MESSAGES_WHEN_OUTGOING_QUEUE_FULL = false;
 
+    /**
+     * Default minimum payload size in bytes to encode when a payload codec is set,
+     * see {@link #getPayloadCodecThreshold() getPayloadCodecThreshold()}. This property is defined as {@value}
+     */
+    public static final int DEFAULT_PAYLOAD_CODEC_THRESHOLD = 1024;
+
+    /**
+     * Default maximum number of replies kept in the response cache,
+     * see {@link #getResponseCacheMaxEntries() getResponseCacheMaxEntries()}. This property is defined as {@value}
+     */
+    public static final int DEFAULT_RESPONSE_CACHE_MAX_ENTRIES = 1000;
+
     // ----------------------------------------------------------------------------------------------------
     // ENVIRONMENT PROPERTIES
     // ----------------------------------------------------------------------------------------------------
@@ -460,6 +472,66 @@ public class Options {
      * {@link Builder#useTimeoutException()}.
      */
     public static final String PROP_USE_TIMEOUT_EXCEPTION = PFX + "use.timeout.exception";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#threadLocalNuid()
+     * threadLocalNuid}.
+     */
+    public static final String PROP_THREAD_LOCAL_NUID = PFX + "thread.local.nuid";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#requestDeadlineHeader()
+     * requestDeadlineHeader}.
+     */
+    public static final String PROP_REQUEST_DEADLINE_HEADER = PFX + "request.deadline.header";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#discardExpiredRequests()
+     * discardExpiredRequests}.
+     */
+    public static final String PROP_DISCARD_EXPIRED_REQUESTS = PFX + "discard.expired.requests";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#requestCoalescing()
+     * requestCoalescing}.
+     */
+    public static final String PROP_REQUEST_COALESCING = PFX + "request.coalescing";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#responseCacheMaxEntries(int)
+     * responseCacheMaxEntries}.
+     */
+    public static final String PROP_RESPONSE_CACHE_MAX_ENTRIES = PFX + "response.cache.max.entries";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#requestHedgeDelay(Duration)
+     * requestHedgeDelay}. Set in milliseconds.
+     */
+    public static final String PROP_REQUEST_HEDGE_DELAY = PFX + "request.hedge.delay";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#preferLowLatencyServers()
+     * preferLowLatencyServers}.
+     */
+    public static final String PROP_PREFER_LOW_LATENCY_SERVERS = PFX + "prefer.low.latency.servers";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#connectAttemptDelay(Duration)
+     * connectAttemptDelay}. Set in milliseconds.
+     */
+    public static final String PROP_CONNECT_ATTEMPT_DELAY = PFX + "connect.attempt.delay";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#dnsCacheTtl(Duration)
+     * dnsCacheTtl}. Set in milliseconds.
+     */
+    public static final String PROP_DNS_CACHE_TTL = PFX + "dns.cache.ttl";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#dnsCacheMaxStale(Duration)
+     * dnsCacheMaxStale}. Set in milliseconds.
+     */
+    public static final String PROP_DNS_CACHE_MAX_STALE = PFX + "dns.cache.max.stale";
+    /**
+     * Property used to set class name for the payload codec
+     * {@link Builder#payloadCodec(PayloadCodec) payloadCodec}.
+     */
+    public static final String PROP_PAYLOAD_CODEC_CLASS = PFX + "payload.codec.class";
+    /**
+     * Property used to configure a builder from a Properties object. {@value}, see {@link Builder#payloadCodecThreshold(int)
+     * payloadCodecThreshold}.
+     */
+    public static final String PROP_PAYLOAD_CODEC_THRESHOLD = PFX + "payload.codec.threshold";
 
     // ----------------------------------------------------------------------------------------------------
     // PROTOCOL CONNECT OPTION CONSTANTS
@@ -589,6 +661,11 @@ public class Options {
     private final boolean ignoreDiscoveredServers;
     private final boolean tlsFirst;
     private final boolean useTimeoutException;
+    private final boolean threadLocalNuid;
+    private final boolean requestDeadlineHeader;
+    private final boolean discardExpiredRequests;
+    private final boolean requestCoalescing;
+    private final boolean preferLowLatencyServers;
 
     private final AuthHandler authHandler;
     private final ReconnectDelayHandler reconnectDelayHandler;
@@ -605,6 +682,15 @@ public class Options {
     private final ExecutorService executor;
     private final ServerPool serverPool;
     private final DispatcherFactory dispatcherFactory;
+    private final PayloadCodec payloadCodec;
+    private final int payloadCodecThreshold;
+    private final List<String> payloadCodecSubjects;
+    private final Map<String, Duration> responseCacheTtls;
+    private final int responseCacheMaxEntries;
+    private final Duration requestHedgeDelay;
+    private final Duration connectAttemptDelay;
+    private final Duration dnsCacheTtl;
+    private final Duration dnsCacheMaxStale;
 
     private final List<java.util.function.Consumer<HttpRequest>> httpRequestInterceptors;
     private final Proxy proxy;
@@ -700,8 +786,22 @@ public class Options {
         private boolean ignoreDiscoveredServers = false;
         private boolean tlsFirst = false;
         private boolean useTimeoutException = false;
+        private boolean threadLocalNuid = false;
+        private boolean requestDeadlineHeader = false;
+        private boolean discardExpiredRequests = false;
+        private boolean requestCoalescing = false;
+        private boolean preferLowLatencyServers = false;
         private ServerPool serverPool = null;
         private DispatcherFactory dispatcherFactory = null;
+        private PayloadCodec payloadCodec = null;
+        private int payloadCodecThreshold = DEFAULT_PAYLOAD_CODEC_THRESHOLD;
+        private List<String> payloadCodecSubjects = null;
+        private Map<String, Duration> responseCacheTtls = null;
+        private int responseCacheMaxEntries = DEFAULT_RESPONSE_CACHE_MAX_ENTRIES;
+        private Duration requestHedgeDelay = null;
+        private Duration connectAttemptDelay = null;
+        private Duration dnsCacheTtl = null;
+        private Duration dnsCacheMaxStale = null;
 
         private AuthHandler authHandler;
         private ReconnectDelayHandler reconnectDelayHandler;
@@ -829,9 +929,21 @@ public class Options {
             booleanProperty(props, PROP_IGNORE_DISCOVERED_SERVERS, b -> this.ignoreDiscoveredServers = b);
             booleanProperty(props, PROP_TLS_FIRST, b -> this.tlsFirst = b);
             booleanProperty(props, PROP_USE_TIMEOUT_EXCEPTION, b -> this.useTimeoutException = b);
+            booleanProperty(props, PROP_THREAD_LOCAL_NUID, b -> this.threadLocalNuid = b);
+            booleanProperty(props, PROP_REQUEST_DEADLINE_HEADER, b -> this.requestDeadlineHeader = b);
+            booleanProperty(props, PROP_DISCARD_EXPIRED_REQUESTS, b -> this.discardExpiredRequests = b);
+            booleanProperty(props, PROP_REQUEST_COALESCING, b -> this.requestCoalescing = b);
+            booleanProperty(props, PROP_PREFER_LOW_LATENCY_SERVERS, b -> this.preferLowLatencyServers = b);
 
             classnameProperty(props, PROP_SERVERS_POOL_IMPLEMENTATION_CLASS, o -> this.serverPool = (ServerPool) o);
             classnameProperty(props, PROP_DISPATCHER_FACTORY_CLASS, o -> this.dispatcherFactory = (DispatcherFactory) o);
+            classnameProperty(props, PROP_PAYLOAD_CODEC_CLASS, o -> this.payloadCodec = (PayloadCodec) o);
+            intGtEqZeroProperty(props, PROP_PAYLOAD_CODEC_THRESHOLD, DEFAULT_PAYLOAD_CODEC_THRESHOLD, i -> this.payloadCodecThreshold = i);
+            intProperty(props, PROP_RESPONSE_CACHE_MAX_ENTRIES, DEFAULT_RESPONSE_CACHE_MAX_ENTRIES, this::responseCacheMaxEntries);
+            durationProperty(props, PROP_REQUEST_HEDGE_DELAY, null, this::requestHedgeDelay);
+            durationProperty(props, PROP_CONNECT_ATTEMPT_DELAY, null, this::connectAttemptDelay);
+            durationProperty(props, PROP_DNS_CACHE_TTL, null, this::dnsCacheTtl);
+            durationProperty(props, PROP_DNS_CACHE_MAX_STALE, null, this::dnsCacheMaxStale);
 
             return this;
         }
@@ -1554,6 +1666,70 @@ public class Options {
             return this;
         }
 
+        /**
+         * Generate inboxes and request reply tokens with a NUID owned by the calling thread,
+         * see {@link io.nats.client.NUID#threadLocal()}, instead of the connection's shared NUID.
+         * Useful when many threads make requests at a high rate on the same connection.
+         * @return the Builder for chaining
+         */
+        public Builder threadLocalNuid() {
+            this.threadLocalNuid = true;
+            return this;
+        }
+
+        /**
+         * Add the {@value io.nats.client.support.NatsRequestUtil#REQUEST_DEADLINE_HDR} header to requests made with a timeout,
+         * the time the request times out, in milliseconds since the epoch. A responder can then skip requests
+         * the caller already gave up on, see {@link #discardExpiredRequests()}. The deadline is wall clock time,
+         * so it is only as accurate as the clocks of the requesting and the responding machines are in sync.
+         * JetStream requests and requests without a timeout don't get the header.
+         * @return the Builder for chaining
+         */
+        public Builder requestDeadlineHeader() {
+            this.requestDeadlineHeader = true;
+            return this;
+        }
+
+        /**
+         * Have dispatchers discard requests with a {@value io.nats.client.support.NatsRequestUtil#REQUEST_DEADLINE_HDR}
+         * header that has passed instead of handing them to the handler, see {@link #requestDeadlineHeader()}.
+         * Discarded requests are counted, see {@link Dispatcher#getExpiredCount()}.
+         * @return the Builder for chaining
+         */
+        public Builder discardExpiredRequests() {
+            this.discardExpiredRequests = true;
+            return this;
+        }
+
+        /**
+         * Coalesce identical requests. While a request is waiting for its reply, another request with the
+         * same subject and the same payload, and no headers, does not go to the server but waits for the same reply.
+         * Every caller gets its own copy of the same reply message. A caller that joins an outstanding request gets the reply,
+         * or the timeout, of that request. Only use this when the requests are idempotent reads,
+         * for instance lookups, since the responder sees just one of them.
+         * JetStream requests are never coalesced.
+         * @return the Builder for chaining
+         */
+        public Builder requestCoalescing() {
+            this.requestCoalescing = true;
+            return this;
+        }
+
+        /**
+         * Order the servers in the default server pool by round trip time, so connecting and reconnecting
+         * try the nearest healthy server first. The round trip time of a server is measured with pings while
+         * connected to it, with the time each connect attempt takes, and, after connecting, with a plain tcp
+         * connect to every other server in the pool. The measurements are smoothed. A server only moves ahead
+         * of another when it is clearly faster, so the order does not flap between servers that are about as near.
+         * Servers not measured yet come after the measured ones, servers that failed to connect come last.
+         * The server the connection is on, or just lost, goes after the others unless it is clearly nearer.
+         * @return the Builder for chaining
+         */
+        public Builder preferLowLatencyServers() {
+            this.preferLowLatencyServers = true;
+            return this;
+        }
+
         /**
          * Set the ServerPool implementation for connections to use instead of the default implementation
          * @param serverPool the implementation
@@ -1574,6 +1750,149 @@ public class Options {
             return this;
         }
 
+        /**
+         * Set the codec used to encode, for instance compress, payloads published with the connection's publish methods,
+         * see {@link io.nats.client.support.DeflatePayloadCodec DeflatePayloadCodec}.
+         * Encoded payloads are marked with the {@value PayloadCodec#CONTENT_ENCODING_HDR} header and are decoded
+         * by subscriptions and dispatchers of connections that have the same codec, see also
+         * {@link Dispatcher#setPayloadCodec(PayloadCodec)}. Nothing is encoded until the subjects whose subscribers
+         * have the codec are set with {@link #payloadCodecSubjects(String...)}. Requests, JetStream publishes and
+         * publishes to JetStream, key value or object store api subjects or to inboxes, like service responses,
+         * are never encoded.
+         * @param payloadCodec the codec
+         * @return the Builder for chaining
+         */
+        public Builder payloadCodec(PayloadCodec payloadCodec) {
+            this.payloadCodec = payloadCodec;
+            return this;
+        }
+
+        /**
+         * Set the minimum payload size in bytes to encode with the payload codec, smaller payloads are sent as is.
+         * Less than 0 means use the default, {@value Options#DEFAULT_PAYLOAD_CODEC_THRESHOLD}.
+         * @param payloadCodecThreshold the threshold
+         * @return the Builder for chaining
+         */
+        public Builder payloadCodecThreshold(int payloadCodecThreshold) {
+            this.payloadCodecThreshold = payloadCodecThreshold < 0 ? DEFAULT_PAYLOAD_CODEC_THRESHOLD : payloadCodecThreshold;
+            return this;
+        }
+
+        /**
+         * Encode payloads published to subjects that match one of these subjects, which can have wildcards.
+         * When not set, nothing is encoded. Subjects starting with {@code $JS.}, {@code $KV.}, {@code $O.},
+         * {@code _INBOX.} or the inbox prefix are never encoded, even when they match.
+         * @param subjects the subjects
+         * @return the Builder for chaining
+         */
+        public Builder payloadCodecSubjects(String... subjects) {
+            if (subjects == null || subjects.length == 0) {
+                this.payloadCodecSubjects = null;
+            }
+            else {
+                List<String> list = new ArrayList<>();
+                for (String subject : subjects) {
+                    list.add(validateSubject(subject, "Payload Codec Subject", true, false));
+                }
+                this.payloadCodecSubjects = list;
+            }
+            return this;
+        }
+
+        /**
+         * Cache replies to requests on the subject, which can have wildcards, for the time to live.
+         * A request with no headers whose subject and payload match a cached reply gets that reply
+         * right away instead of going to the server, as its own copy of the message.
+         * Status replies, for instance no responders, are not cached.
+         * Only mark subjects whose requests are idempotent reads, for instance reference data lookups,
+         * since the responder does not see the cached requests. Call once for every subject,
+         * when a request matches more than one subject, the first one added applies.
+         * JetStream requests are never cached.
+         * @param subject the subject
+         * @param ttl the time to live, must be greater than 0
+         * @return the Builder for chaining
+         */
+        public Builder responseCache(String subject, Duration ttl) {
+            validateSubject(subject, "Response Cache Subject", true, false);
+            validateDurationRequired(ttl);
+            if (responseCacheTtls == null) {
+                responseCacheTtls = new LinkedHashMap<>();
+            }
+            responseCacheTtls.put(subject, ttl);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of replies kept in the response cache, when there are more
+         * the least recently used reply is evicted. Less than 1 means use the default,
+         * {@value Options#DEFAULT_RESPONSE_CACHE_MAX_ENTRIES}.
+         * @param responseCacheMaxEntries the maximum number of replies
+         * @return the Builder for chaining
+         */
+        public Builder responseCacheMaxEntries(int responseCacheMaxEntries) {
+            this.responseCacheMaxEntries = responseCacheMaxEntries < 1 ? DEFAULT_RESPONSE_CACHE_MAX_ENTRIES : responseCacheMaxEntries;
+            return this;
+        }
+
+        /**
+         * Hedge requests. When a request has no reply after the delay, a copy of it is sent,
+         * which a queue group can give to another member, and the first reply of either wins.
+         * The other one is cancelled and stops waiting right away. The request only fails when every copy
+         * that was sent has failed, and the copy only waits for what is left of the request timeout. A good delay is about the
+         * 95th percentile of the reply time, so only the slowest requests are sent twice.
+         * Only use this when the requests are idempotent, since the responders can see both copies.
+         * JetStream requests are never hedged.
+         * @param requestHedgeDelay the delay, null or not greater than 0 means do not hedge
+         * @return the Builder for chaining
+         */
+        public Builder requestHedgeDelay(Duration requestHedgeDelay) {
+            this.requestHedgeDelay = requestHedgeDelay == null || requestHedgeDelay.isZero() || requestHedgeDelay.isNegative() ? null : requestHedgeDelay;
+            return this;
+        }
+
+        /**
+         * Connect to the addresses a server host name resolves to in parallel, staggered by the delay,
+         * like "happy eyeballs". The first attempt starts right away, the next one when the delay passes
+         * or the one before it fails. The first socket that connects is used for the handshake and the
+         * others are closed, so an address that does not answer does not hold up connecting for the
+         * whole connection timeout. A few hundred milliseconds is a good delay.
+         * Servers are still tried one after the other, as are addresses when this is not set.
+         * @param connectAttemptDelay the delay, null or not greater than 0 means try the addresses one after the other
+         * @return the Builder for chaining
+         */
+        public Builder connectAttemptDelay(Duration connectAttemptDelay) {
+            this.connectAttemptDelay = connectAttemptDelay == null || connectAttemptDelay.isZero() || connectAttemptDelay.isNegative() ? null : connectAttemptDelay;
+            return this;
+        }
+
+        /**
+         * Cache the host name resolution of the default server pool. The cache is shared by all connections
+         * in the JVM that use it, so a reconnect storm resolves a host once instead of once per connection
+         * and attempt. Addresses older than the time to live are still used while they are refreshed in
+         * the background, and are kept if the refresh fails, so connecting does not wait on the resolver
+         * once a host has been resolved. Addresses that are stale for longer than the
+         * {@link #dnsCacheMaxStale(Duration) max stale} time are not used anymore, the host is resolved again
+         * and connecting waits for it.
+         * @param dnsCacheTtl the time to live, null or not greater than 0 means resolve on every attempt
+         * @return the Builder for chaining
+         */
+        public Builder dnsCacheTtl(Duration dnsCacheTtl) {
+            this.dnsCacheTtl = dnsCacheTtl == null || dnsCacheTtl.isZero() || dnsCacheTtl.isNegative() ? null : dnsCacheTtl;
+            return this;
+        }
+
+        /**
+         * Set how long cached addresses can be used after their {@link #dnsCacheTtl(Duration) time to live},
+         * while the refresh does not succeed. After that, resolving waits for the resolver again,
+         * and fails if the host can't be resolved, so addresses that are long gone are not tried forever.
+         * @param dnsCacheMaxStale the max stale time, null or not greater than 0 means the same as the time to live
+         * @return the Builder for chaining
+         */
+        public Builder dnsCacheMaxStale(Duration dnsCacheMaxStale) {
+            this.dnsCacheMaxStale = dnsCacheMaxStale == null || dnsCacheMaxStale.isZero() || dnsCacheMaxStale.isNegative() ? null : dnsCacheMaxStale;
+            return this;
+        }
+
         /**
          * Build an Options object from this Builder.
          *
@@ -1739,9 +2058,23 @@ public class Options {
             this.ignoreDiscoveredServers = o.ignoreDiscoveredServers;
             this.tlsFirst = o.tlsFirst;
             this.useTimeoutException = o.useTimeoutException;
+            this.threadLocalNuid = o.threadLocalNuid;
+            this.requestDeadlineHeader = o.requestDeadlineHeader;
+            this.discardExpiredRequests = o.discardExpiredRequests;
+            this.requestCoalescing = o.requestCoalescing;
+            this.preferLowLatencyServers = o.preferLowLatencyServers;
 
             this.serverPool = o.serverPool;
             this.dispatcherFactory = o.dispatcherFactory;
+            this.payloadCodec = o.payloadCodec;
+            this.payloadCodecThreshold = o.payloadCodecThreshold;
+            this.payloadCodecSubjects = o.payloadCodecSubjects;
+            this.responseCacheTtls = o.responseCacheTtls == null ? null : new LinkedHashMap<>(o.responseCacheTtls);
+            this.responseCacheMaxEntries = o.responseCacheMaxEntries;
+            this.requestHedgeDelay = o.requestHedgeDelay;
+            this.connectAttemptDelay = o.connectAttemptDelay;
+            this.dnsCacheTtl = o.dnsCacheTtl;
+            this.dnsCacheMaxStale = o.dnsCacheMaxStale;
         }
     }
 
@@ -1804,9 +2137,23 @@ public class Options {
         this.ignoreDiscoveredServers = b.ignoreDiscoveredServers;
         this.tlsFirst = b.tlsFirst;
         this.useTimeoutException = b.useTimeoutException;
+        this.threadLocalNuid = b.threadLocalNuid;
+        this.requestDeadlineHeader = b.requestDeadlineHeader;
+        this.discardExpiredRequests = b.discardExpiredRequests;
+        this.requestCoalescing = b.requestCoalescing;
+        this.preferLowLatencyServers = b.preferLowLatencyServers;
 
         this.serverPool = b.serverPool;
         this.dispatcherFactory = b.dispatcherFactory;
+        this.payloadCodec = b.payloadCodec;
+        this.payloadCodecThreshold = b.payloadCodecThreshold;
+        this.payloadCodecSubjects = b.payloadCodecSubjects == null ? null : Collections.unmodifiableList(b.payloadCodecSubjects);
+        this.responseCacheTtls = b.responseCacheTtls == null ? null : Collections.unmodifiableMap(new LinkedHashMap<>(b.responseCacheTtls));
+        this.responseCacheMaxEntries = b.responseCacheMaxEntries;
+        this.requestHedgeDelay = b.requestHedgeDelay;
+        this.connectAttemptDelay = b.connectAttemptDelay;
+        this.dnsCacheTtl = b.dnsCacheTtl;
+        this.dnsCacheMaxStale = b.dnsCacheMaxStale;
     }
 
     // ----------------------------------------------------------------------------------------------------
@@ -2224,6 +2571,46 @@ public class Options {
         return useTimeoutException;
     }
 
+    /**
+     * Get whether to use a thread local NUID for inboxes and request reply tokens.
+     * @return the flag
+     */
+    public boolean isThreadLocalNuid() {
+        return threadLocalNuid;
+    }
+
+    /**
+     * Get whether to add the deadline header to requests, see {@link Builder#requestDeadlineHeader() requestDeadlineHeader()} in the builder doc.
+     * @return the flag
+     */
+    public boolean isRequestDeadlineHeader() {
+        return requestDeadlineHeader;
+    }
+
+    /**
+     * Get whether dispatchers discard expired requests, see {@link Builder#discardExpiredRequests() discardExpiredRequests()} in the builder doc.
+     * @return the flag
+     */
+    public boolean isDiscardExpiredRequests() {
+        return discardExpiredRequests;
+    }
+
+    /**
+     * Get whether identical requests are coalesced, see {@link Builder#requestCoalescing() requestCoalescing()} in the builder doc.
+     * @return the flag
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * Get whether the server pool prefers the servers with the lowest round trip time, see {@link Builder#preferLowLatencyServers() preferLowLatencyServers()} in the builder doc.
+     * @return the flag
+     */
+    public boolean isPreferLowLatencyServers() {
+        return preferLowLatencyServers;
+    }
+
     /**
      * Get the ServerPool implementation. If null, a default implementation is used.
      * @return the ServerPool implementation
@@ -2240,6 +2627,79 @@ public class Options {
         return dispatcherFactory;
     }
 
+    /**
+     * Get the payload codec, see {@link Builder#payloadCodec(PayloadCodec) payloadCodec()} in the builder doc.
+     * @return the codec or null if payloads are not encoded
+     */
+    public PayloadCodec getPayloadCodec() {
+        return payloadCodec;
+    }
+
+    /**
+     * Get the minimum payload size in bytes to encode with the payload codec.
+     * @return the threshold
+     */
+    public int getPayloadCodecThreshold() {
+        return payloadCodecThreshold;
+    }
+
+    /**
+     * Get the subjects the payload codec is limited to.
+     * @return the subjects or null if the codec applies to no subjects
+     */
+    public List<String> getPayloadCodecSubjects() {
+        return payloadCodecSubjects;
+    }
+
+    /**
+     * Get the time to live of cached replies by request subject, see {@link Builder#responseCache(String, Duration) responseCache()} in the builder doc.
+     * @return the subjects with their time to live, or null if replies are not cached
+     */
+    public Map<String, Duration> getResponseCacheTtls() {
+        return responseCacheTtls;
+    }
+
+    /**
+     * Get the maximum number of replies kept in the response cache.
+     * @return the maximum number of replies
+     */
+    public int getResponseCacheMaxEntries() {
+        return responseCacheMaxEntries;
+    }
+
+    /**
+     * Get the delay after which a request without a reply is sent again, see {@link Builder#requestHedgeDelay(Duration) requestHedgeDelay()} in the builder doc.
+     * @return the delay, or null if requests are not hedged
+     */
+    public Duration getRequestHedgeDelay() {
+        return requestHedgeDelay;
+    }
+
+    /**
+     * Get the delay between parallel attempts to connect to the addresses of a server, see {@link Builder#connectAttemptDelay(Duration) connectAttemptDelay()} in the builder doc.
+     * @return the delay, or null if the addresses are tried one after the other
+     */
+    public Duration getConnectAttemptDelay() {
+        return connectAttemptDelay;
+    }
+
+    /**
+     * Get the time to live of cached host name resolution, see {@link Builder#dnsCacheTtl(Duration) dnsCacheTtl()} in the builder doc.
+     * @return the time to live, or null if host names are resolved on every attempt
+     */
+    public Duration getDnsCacheTtl() {
+        return dnsCacheTtl;
+    }
+
+    /**
+     * Get how long cached host name resolution can be used after its time to live, see
+     * {@link Builder#dnsCacheMaxStale(Duration) dnsCacheMaxStale()} in the builder doc.
+     * @return the max stale time, or the time to live if not set, or null if host names are resolved on every attempt
+     */
+    public Duration getDnsCacheMaxStale() {
+        return dnsCacheMaxStale == null ? dnsCacheTtl : dnsCacheMaxStale;
+    }
+
     public URI createURIForServer(String serverURI) throws URISyntaxException {
         return new NatsUri(serverURI).getUri();
     }
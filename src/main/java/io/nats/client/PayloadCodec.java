@@ -0,0 +1,53 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client;
+
+import java.io.IOException;
+
+/**
+ * Encodes, for instance compresses, message payloads on publish and decodes them on delivery.
+ * An encoded message carries the {@value #CONTENT_ENCODING_HDR} header with the codec name,
+ * so a receiver knows which payloads to decode. The built-in codec is
+ * {@link io.nats.client.support.DeflatePayloadCodec DeflatePayloadCodec}.
+ * <p>Implementations must be thread safe, encode and decode are called by publishing threads,
+ * subscription threads and dispatcher threads at the same time.</p>
+ */
+public interface PayloadCodec {
+
+    /**
+     * The header that marks an encoded payload, its value is the codec name
+     */
+    String CONTENT_ENCODING_HDR = "Content-Encoding";
+
+    /**
+     * Get the name of the codec, the value of the {@value #CONTENT_ENCODING_HDR} header, for instance "deflate"
+     * @return the name
+     */
+    String getName();
+
+    /**
+     * Encode a payload
+     * @param data the payload
+     * @return the encoded payload
+     */
+    byte[] encode(byte[] data);
+
+    /**
+     * Decode a payload that was encoded by this codec
+     * @param data the encoded payload
+     * @return the payload
+     * @throws IOException if the data is not a valid encoding
+     */
+    byte[] decode(byte[] data) throws IOException;
+}
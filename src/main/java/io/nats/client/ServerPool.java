@@ -15,6 +15,7 @@ package io.nats.client;
 
 import io.nats.client.support.NatsUri;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -67,6 +68,15 @@ public interface ServerPool {
      */
     void connectFailed(NatsUri nuri);
 
+    /**
+     * Indicate a round trip time measured to this NatsUri, the time to connect, the ping and pong when connecting,
+     * the pings while connected and, when preferring low latency servers, a tcp connect to the other servers
+     * in the pool. A pool can use it to prefer the nearest servers.
+     * @param nuri should match the NatsUri given by nextServer
+     * @param rtt the round trip time
+     */
+    default void roundTripTimeMeasured(NatsUri nuri, Duration rtt) {}
+
     /**
      * Get the list of servers known to the pool. Purely informational
      * @return the list of servers
@@ -104,4 +104,18 @@ public interface Statistics {
      * @return the count of outstanding of requests from this connection.
      */
     long getOutstandingRequests();
+
+    /**
+     * @return the count of requests answered from the response cache without going to the server.
+     */
+    default long getResponseCacheHits() {
+        return 0;
+    }
+
+    /**
+     * @return the count of requests on cached subjects that were not in the response cache.
+     */
+    default long getResponseCacheMisses() {
+        return 0;
+    }
 }
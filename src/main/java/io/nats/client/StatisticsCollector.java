@@ -118,6 +118,16 @@ public interface StatisticsCollector extends Statistics {
      */
     void decrementOutstandingRequests();
 
+    /**
+     * Increment the count of requests answered from the response cache.
+     */
+    default void incrementResponseCacheHits() {}
+
+    /**
+     * Increment the count of requests on cached subjects that were not in the response cache.
+     */
+    default void incrementResponseCacheMisses() {}
+
     /**
      * Registers a Socket read by this connection.
      * <p>NOTE: Implementations should only count this if advanced stats are enabled.</p>
@@ -0,0 +1,98 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.api;
+
+/**
+ * One result of consuming keys. A result is either a key, an exception or the marker
+ * that there are no more keys. An exception result is also the last result.
+ */
+public class KeyResult {
+
+    private final String key;
+    private final Exception e;
+
+    /**
+     * Construct the result that marks there are no more keys
+     */
+    public KeyResult() {
+        this.key = null;
+        this.e = null;
+    }
+
+    /**
+     * Construct a key result
+     * @param key the key
+     */
+    public KeyResult(String key) {
+        this.key = key;
+        this.e = null;
+    }
+
+    /**
+     * Construct an exception result
+     * @param e the exception
+     */
+    public KeyResult(Exception e) {
+        this.key = null;
+        this.e = e;
+    }
+
+    /**
+     * Get the key
+     * @return the key or null if this is not a key result
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the exception
+     * @return the exception or null if this is not an exception result
+     */
+    public Exception getException() {
+        return e;
+    }
+
+    /**
+     * Whether this result is a key
+     * @return true if this result is a key
+     */
+    public boolean isKey() {
+        return key != null;
+    }
+
+    /**
+     * Whether this result is an exception
+     * @return true if this result is an exception
+     */
+    public boolean isException() {
+        return e != null;
+    }
+
+    /**
+     * Whether there are no more results after this one
+     * @return true if this is the last result
+     */
+    public boolean isDone() {
+        return key == null;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyResult{" +
+            "key='" + key + '\'' +
+            ", e=" + e +
+            '}';
+    }
+}
@@ -37,6 +37,7 @@ public class Headers {
 	private final Map<String, List<String>> valuesMap;
 	private final Map<String, Integer> lengthMap;
 	private final boolean readOnly;
+	private final boolean frozen;
 	private byte[] serialized;
 	private int dataLength;
 
@@ -56,7 +57,10 @@ public class Headers {
 		Map<String, List<String>> tempValuesMap = new HashMap<>();
 		Map<String, Integer> tempLengthMap = new HashMap<>();
 		if (headers != null) {
-			tempValuesMap.putAll(headers.valuesMap);
+			// copy the value lists so neither instance can change the other's values
+			for (Map.Entry<String, List<String>> entry : headers.valuesMap.entrySet()) {
+				tempValuesMap.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+			}
 			tempLengthMap.putAll(headers.lengthMap);
 			dataLength = headers.dataLength;
 			if (keysNotToCopy != null) {
@@ -70,6 +74,7 @@ public class Headers {
 			}
 		}
 		this.readOnly = readOnly;
+		frozen = false;
 		if (readOnly) {
 			valuesMap = Collections.unmodifiableMap(tempValuesMap);
 			lengthMap = Collections.unmodifiableMap(tempLengthMap);
@@ -80,6 +85,36 @@ public class Headers {
 		}
 	}
 
+	// the frozen constructor, the maps are already private copies
+	private Headers(Map<String, List<String>> tempValuesMap, Map<String, Integer> tempLengthMap, int dataLength) {
+		this.dataLength = dataLength;
+		readOnly = true;
+		frozen = true;
+		valuesMap = Collections.unmodifiableMap(tempValuesMap);
+		lengthMap = Collections.unmodifiableMap(tempLengthMap);
+		byte[] temp = new byte[serializedLength()];
+		serializeToArray(0, temp);
+		serialized = temp;
+	}
+
+	/**
+	 * Returns a frozen copy of these headers. A frozen Headers is read only and is serialized
+	 * once when it is created, so it can be shared across any number of messages and publishes
+	 * without being copied or serialized again. Freezing an already frozen Headers returns the same object.
+	 *
+	 * @return the frozen Headers
+	 */
+	public Headers freeze() {
+		if (frozen) {
+			return this;
+		}
+		Map<String, List<String>> tempValuesMap = new HashMap<>();
+		for (Map.Entry<String, List<String>> entry : valuesMap.entrySet()) {
+			tempValuesMap.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+		}
+		return new Headers(tempValuesMap, new HashMap<>(lengthMap), dataLength);
+	}
+
 	/**
 	 * If the key is present add the values to the list of values for the key.
 	 * If the key is not present, sets the specified values for the key.
@@ -405,8 +440,9 @@ public class Headers {
 	 */
 	public byte[] getSerialized() {
 		if (serialized == null) {
-			serialized = new byte[serializedLength()];
-			serializeToArray(0, serialized);
+			byte[] temp = new byte[serializedLength()];
+			serializeToArray(0, temp);
+			serialized = temp;
 		}
 		return serialized;
 	}
@@ -439,6 +475,12 @@ public class Headers {
 	 * @return the length of the header
 	 */
 	public int serializeToArray(int destPosition, byte[] dest) {
+		if (serialized != null) {
+			// already serialized and not changed since, i.e. always for frozen headers
+			System.arraycopy(serialized, 0, dest, destPosition, serialized.length);
+			return serialized.length;
+		}
+
 		System.arraycopy(HEADER_VERSION_BYTES_PLUS_CRLF, 0, dest, destPosition, HVCRLF_BYTES);
 		destPosition += HVCRLF_BYTES;
 
@@ -538,6 +580,15 @@ public class Headers {
 		return readOnly;
 	}
 
+	/**
+	 * Whether the Headers is frozen, meaning read only and already serialized.
+	 * @see #freeze()
+	 * @return the frozen state
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
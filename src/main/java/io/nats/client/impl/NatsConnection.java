@@ -20,6 +20,8 @@ import io.nats.client.support.*;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -28,6 +30,7 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Condition;
@@ -73,9 +76,13 @@ class NatsConnection implements Connection {
     private final Collection<ConnectionListener> connectionListeners;
     private final Map<String, NatsRequestCompletableFuture> responsesAwaiting;
     private final Map<String, NatsRequestCompletableFuture> responsesRespondedTo;
+    private final Map<String, BlockingQueue<Message>> responsesAwaitingMany;
+    private final NatsRequestCoalescer requestCoalescer;
+    private final NatsResponseCache responseCache;
     private final ConcurrentLinkedDeque<CompletableFuture<Boolean>> pongQueue;
 
     private final String mainInbox;
+    private final char[] responseInboxPrefix;
     private final AtomicReference<NatsDispatcher> inboxDispatcher;
     private Timer timer;
 
@@ -83,6 +90,7 @@ class NatsConnection implements Connection {
 
     private final AtomicLong nextSid;
     private final NUID nuid;
+    private final boolean threadLocalNuid;
 
     private final AtomicReference<String> connectError;
     private final AtomicReference<String> lastError;
@@ -124,13 +132,19 @@ class NatsConnection implements Connection {
         this.subscribers = new ConcurrentHashMap<>();
         this.responsesAwaiting = new ConcurrentHashMap<>();
         this.responsesRespondedTo = new ConcurrentHashMap<>();
+        this.responsesAwaitingMany = new ConcurrentHashMap<>();
+        this.requestCoalescer = options.isRequestCoalescing() ? new NatsRequestCoalescer() : null;
+        this.responseCache = options.getResponseCacheTtls() == null ? null
+            : new NatsResponseCache(options.getResponseCacheMaxEntries(), options.getResponseCacheTtls());
 
         this.serverAuthErrors = new HashMap<>();
 
         this.nextSid = new AtomicLong(1);
         LOGGER.info("connect trace: creating NUID");
         this.nuid = new NUID();
+        this.threadLocalNuid = options.isThreadLocalNuid();
         this.mainInbox = createInbox() + ".*";
+        this.responseInboxPrefix = mainInbox.substring(0, getRespInboxLength()).toCharArray();
 
         this.lastError = new AtomicReference<>();
         this.connectError = new AtomicReference<>();
@@ -199,8 +213,7 @@ class NatsConnection implements Connection {
                 updateStatus(Status.CONNECTING);
 
                 LOGGER.info("connect trace: trying to connect to " + cur);
-                NatsUri resolved = resolvedList.remove(0);
-                tryToConnect(cur, resolved, System.nanoTime());
+                NatsUri resolved = tryToConnect(cur, resolvedList, System.nanoTime());
 
                 if (isConnected()) {
                     serverPool.connectSucceeded(cur);
@@ -288,8 +301,7 @@ class NatsConnection implements Connection {
                         else {
                             updateStatus(Status.RECONNECTING);
 
-                            NatsUri resolved = resolvedList.remove(0);
-                            tryToConnect(cur, resolved, System.nanoTime());
+                            NatsUri resolved = tryToConnect(cur, resolvedList, System.nanoTime());
 
                             if (isConnected()) {
                                 serverPool.connectSucceeded(cur);
@@ -362,8 +374,11 @@ class NatsConnection implements Connection {
     // is called from reconnect and connect
     // will wait for any previous attempt to complete, using the reader.stop and
     // writer.stop
-    void tryToConnect(NatsUri cur, NatsUri resolved, long now) {
+    // tries the first resolved or, with a connect attempt delay, the first of them to connect.
+    // returns the one tried, it and any that failed to connect are removed from the list
+    NatsUri tryToConnect(NatsUri cur, List<NatsUri> resolvedList, long now) {
         currentServer = null;
+        NatsUri[] tried = new NatsUri[]{resolvedList.get(0)};
 
         try {
             Duration connectTimeout = options.getConnectionTimeout();
@@ -373,7 +388,7 @@ class NatsConnection implements Connection {
             statusLock.lock();
             try {
                 if (this.connecting) {
-                    return;
+                    return tried[0];
                 }
                 this.connecting = true;
                 statusChanged.signalAll();
@@ -395,8 +410,8 @@ class NatsConnection implements Connection {
             cleanUpPongQueue();
 
             timeoutNanos = timeCheck(end, "connecting data port");
-            DataPort newDataPort = this.options.buildDataPort();
-            newDataPort.connect(resolved.toString(), this, timeoutNanos);
+            DataPort newDataPort = connectDataPort(cur, resolvedList, timeoutNanos, tried);
+            NatsUri resolved = tried[0];
 
             // Notify any threads waiting on the sockets
             this.dataPort = newDataPort;
@@ -443,10 +458,12 @@ class NatsConnection implements Connection {
             this.sendConnect(resolved);
 
             timeoutNanos = timeCheck(end, "sending initial ping");
+            long pingStart = System.nanoTime();
             Future<Boolean> pongFuture = sendPing();
 
             if (pongFuture != null) {
                 pongFuture.get(timeoutNanos, TimeUnit.NANOSECONDS);
+                serverPool.roundTripTimeMeasured(cur, Duration.ofNanos(System.nanoTime() - pingStart));
             }
 
             if (this.timer == null) {
@@ -459,7 +476,7 @@ class NatsConnection implements Connection {
                     this.timer.schedule(new TimerTask() {
                         public void run() {
                             if (isConnected()) {
-                                softPing(); // The timer always uses the standard queue
+                                timedSoftPing(); // The timer always uses the standard queue
                             }
                         }
                     }, pingMillis, pingMillis);
@@ -493,6 +510,18 @@ class NatsConnection implements Connection {
                 statusLock.unlock();
             }
             LOGGER.info("status updated");
+
+            if (options.isPreferLowLatencyServers()) {
+                // the pings only measure the server the connection is on, time a connect to the others
+                NatsUri connectedTo = cur;
+                long probeTimeoutMillis = connectTimeout.toMillis();
+                try {
+                    executor.submit(() -> probeServerLatencies(serverPool, connectedTo, probeTimeoutMillis));
+                }
+                catch (RejectedExecutionException ignore) {
+                    // closing, nothing to order anymore
+                }
+            }
         } catch (RuntimeException exp) { // runtime exceptions, like illegalArgs
             processException(exp);
             throw exp;
@@ -504,6 +533,7 @@ class NatsConnection implements Connection {
                 processException(e);
             }
         } finally {
+            resolvedList.remove(tried[0]);
             statusLock.lock();
             try {
                 this.connecting = false;
@@ -512,6 +542,139 @@ class NatsConnection implements Connection {
                 statusLock.unlock();
             }
         }
+        return tried[0];
+    }
+
+    // the time to connect to any address of the server, also for attempts that lose the race
+    // or fail later in the handshake, is reported to the server pool as a round trip time
+    private DataPort connectDataPort(NatsUri cur, List<NatsUri> resolvedList, long timeoutNanos, NatsUri[] tried) throws IOException, InterruptedException {
+        Duration attemptDelay = options.getConnectAttemptDelay();
+        if (attemptDelay == null || resolvedList.size() == 1) {
+            DataPort dataPort = this.options.buildDataPort();
+            long start = System.nanoTime();
+            dataPort.connect(tried[0].toString(), this, timeoutNanos);
+            serverPool.roundTripTimeMeasured(cur, Duration.ofNanos(System.nanoTime() - start));
+            return dataPort;
+        }
+
+        // Start an attempt, then the next one after the delay or as soon as all started have failed.
+        // The first attempt to connect wins, attempts that connect after that close their data port.
+        long end = System.nanoTime() + timeoutNanos;
+        List<NatsUri> candidates = new ArrayList<>(resolvedList);
+        AtomicReference<NatsUri> winner = new AtomicReference<>();
+        BlockingQueue<Object[]> results = new LinkedBlockingQueue<>(); // {NatsUri, DataPort or Exception}
+        List<DataPort> attempts = Collections.synchronizedList(new ArrayList<>());
+        int started = 0;
+        int failed = 0;
+        long nextStart = System.nanoTime();
+        while (true) {
+            long now = System.nanoTime();
+            if (started < candidates.size() && (now - nextStart >= 0 || failed == started)) {
+                // at least a milli, a socket connect timeout of 0 waits forever
+                startConnectAttempt(cur, candidates.get(started++), Math.max(end - now, 1_000_000), winner, results, attempts);
+                nextStart = now + attemptDelay.toNanos();
+            }
+
+            long waitNanos = end - now;
+            if (started < candidates.size()) {
+                waitNanos = Math.min(waitNanos, nextStart - now);
+            }
+            Object[] result = waitNanos > 0 ? results.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+            if (result == null) {
+                if (end - System.nanoTime() > 0) {
+                    continue; // time to start the next one
+                }
+                // keeps an attempt that connects from now on from winning
+                if (winner.compareAndSet(null, tried[0])) {
+                    cancelConnectAttempts(attempts, null);
+                    resolvedList.removeAll(candidates.subList(0, started));
+                    throw new IOException("Timed out connecting to " + candidates.subList(0, started));
+                }
+                // one connected just now, skip any failures ahead of it
+                do {
+                    result = results.take();
+                } while (!(result[1] instanceof DataPort));
+            }
+
+            if (result[1] instanceof DataPort) {
+                tried[0] = (NatsUri) result[0];
+                cancelConnectAttempts(attempts, (DataPort) result[1]);
+                return (DataPort) result[1];
+            }
+            failed++;
+            resolvedList.remove((NatsUri) result[0]);
+            if (failed == candidates.size()) {
+                tried[0] = (NatsUri) result[0];
+                Exception e = (Exception) result[1];
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+        }
+    }
+
+    private void startConnectAttempt(NatsUri cur, NatsUri candidate, long timeoutNanos, AtomicReference<NatsUri> winner,
+                                     BlockingQueue<Object[]> results, List<DataPort> attempts) {
+        DataPort dataPort = options.buildDataPort();
+        attempts.add(dataPort);
+        executor.submit(() -> {
+            try {
+                long start = System.nanoTime();
+                dataPort.connect(candidate.toString(), this, timeoutNanos);
+                serverPool.roundTripTimeMeasured(cur, Duration.ofNanos(System.nanoTime() - start));
+            }
+            catch (Exception e) {
+                results.add(new Object[]{candidate, e});
+                return;
+            }
+            if (winner.compareAndSet(null, candidate)) {
+                results.add(new Object[]{candidate, dataPort});
+            }
+            else {
+                try {
+                    dataPort.close();
+                }
+                catch (IOException ignore) {
+                    // lost the race, nothing to do
+                }
+            }
+        });
+    }
+
+    // closes the data ports of the attempts still connecting, so they fail before
+    // or during their handshake instead of finishing it for nothing
+    private static void cancelConnectAttempts(List<DataPort> attempts, DataPort keep) {
+        synchronized (attempts) {
+            for (DataPort dataPort : attempts) {
+                if (dataPort != keep) {
+                    try {
+                        dataPort.close();
+                    }
+                    catch (Exception ignore) {
+                        // not connected yet or already closed
+                    }
+                }
+            }
+        }
+    }
+
+    // times a plain tcp connect to every server in the pool but the one connected to,
+    // servers that can't be reached are left alone, connecting to them counts the failures
+    static void probeServerLatencies(ServerPool pool, NatsUri connectedTo, long timeoutMillis) {
+        for (String server : pool.getServerList()) {
+            try {
+                NatsUri nuri = new NatsUri(server);
+                if (nuri.equals(connectedTo)) {
+                    continue;
+                }
+                try (Socket socket = new Socket()) {
+                    long start = System.nanoTime();
+                    socket.connect(new InetSocketAddress(nuri.getHost(), nuri.getPort()), (int) timeoutMillis);
+                    pool.roundTripTimeMeasured(nuri, Duration.ofNanos(System.nanoTime() - start));
+                }
+            }
+            catch (Exception ignore) {
+                // not reachable right now
+            }
+        }
     }
 
     void checkVersionRequirements() throws IOException {
@@ -771,7 +934,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public void publish(String subject, byte[] body) {
-        publishInternal(subject, null, null, body);
+        publishEncoded(subject, null, null, body);
     }
 
     /**
@@ -779,7 +942,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public void publish(String subject, Headers headers, byte[] body) {
-        publishInternal(subject, null, headers, body);
+        publishEncoded(subject, null, headers, body);
     }
 
     /**
@@ -787,7 +950,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public void publish(String subject, String replyTo, byte[] body) {
-        publishInternal(subject, replyTo, null, body);
+        publishEncoded(subject, replyTo, null, body);
     }
 
     /**
@@ -795,7 +958,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public void publish(String subject, String replyTo, Headers headers, byte[] body) {
-        publishInternal(subject, replyTo, headers, body);
+        publishEncoded(subject, replyTo, headers, body);
     }
 
     /**
@@ -804,7 +967,77 @@ class NatsConnection implements Connection {
     @Override
     public void publish(Message message) {
         validateNotNull(message, "Message");
-        publishInternal(message.getSubject(), message.getReplyTo(), message.getHeaders(), message.getData());
+        publishEncoded(message.getSubject(), message.getReplyTo(), message.getHeaders(), message.getData());
+    }
+
+    private void publishEncoded(String subject, String replyTo, Headers headers, byte[] data) {
+        PayloadCodec codec = options.getPayloadCodec();
+        if (codec != null && data != null && data.length >= options.getPayloadCodecThreshold()
+            && (headers == null || !headers.containsKey(PayloadCodec.CONTENT_ENCODING_HDR))
+            && serverInfo.get().isHeadersSupported()
+            && payloadCodecApplies(subject)) {
+            byte[] encoded = codec.encode(data);
+            if (encoded.length < data.length) { // don't send it bigger than it was
+                Headers h = new Headers(headers);
+                h.put(PayloadCodec.CONTENT_ENCODING_HDR, codec.getName());
+                publishInternal(subject, replyTo, h.freeze(), encoded);
+                return;
+            }
+        }
+        publishInternal(subject, replyTo, headers, data);
+    }
+
+    private boolean payloadCodecApplies(String subject) {
+        // opt in per subject, so a publish only gets encoded when its readers are known to have the codec
+        List<String> filters = options.getPayloadCodecSubjects();
+        if (filters == null || neverEncoded(subject, options.getInboxPrefix())) {
+            return false;
+        }
+        for (String filter : filters) {
+            if (subjectMatches(filter, subject)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the JetStream, key value and object store api and the inboxes replies go to are read by
+    // the server or by whoever made the request, neither is known to have the codec
+    static boolean neverEncoded(String subject, String inboxPrefix) {
+        return subject.startsWith("$JS.") || subject.startsWith("$KV.") || subject.startsWith("$O.")
+            || subject.startsWith("_INBOX.") || subject.startsWith(inboxPrefix);
+    }
+
+    static boolean subjectMatches(String filter, String subject) {
+        // walks the tokens in place, this is called for every publish and request so nothing is allocated
+        int fStart = 0;
+        int sStart = 0;
+        while (true) {
+            if (sStart > subject.length()) {
+                return false; // the filter has more tokens than the subject
+            }
+            int fEnd = filter.indexOf('.', fStart);
+            if (fEnd == -1) {
+                fEnd = filter.length();
+            }
+            int sEnd = subject.indexOf('.', sStart);
+            if (sEnd == -1) {
+                sEnd = subject.length();
+            }
+            int fTokenLen = fEnd - fStart;
+            if (fTokenLen == 1 && filter.charAt(fStart) == '>') {
+                return true;
+            }
+            boolean star = fTokenLen == 1 && filter.charAt(fStart) == '*';
+            if (!star && (fTokenLen != sEnd - sStart || !filter.regionMatches(fStart, subject, sStart, fTokenLen))) {
+                return false;
+            }
+            fStart = fEnd + 1;
+            sStart = sEnd + 1;
+            if (fStart > filter.length()) {
+                return sStart > subject.length(); // both must be out of tokens
+            }
+        }
     }
 
     void publishInternal(String subject, String replyTo, Headers headers, byte[] data) {
@@ -817,7 +1050,9 @@ class NatsConnection implements Connection {
             throw new IllegalStateException("Connection is Draining"); // Ok to publish while waiting on subs
         }
 
-        NatsMessage nm = new NatsMessage(subject, replyTo, new Headers(headers), data);
+        // frozen headers can't change, so they are shared instead of copied
+        Headers h = headers == null || headers.isFrozen() ? headers : new Headers(headers, true);
+        NatsMessage nm = new NatsMessage(subject, replyTo, h, data);
 
         Connection.Status stat = this.status;
         if ((stat == Status.RECONNECTING || stat == Status.DISCONNECTED)
@@ -964,16 +1199,30 @@ class NatsConnection implements Connection {
      */
     @Override
     public String createInbox() {
-        return options.getInboxPrefix() + nuid.next();
+        String prefix = options.getInboxPrefix();
+        int len = prefix.length();
+        char[] chars = new char[len + NUID.totalLength()];
+        prefix.getChars(0, len, chars, 0);
+        inboxNuid().next(chars, len);
+        return new String(chars);
+    }
+
+    private NUID inboxNuid() {
+        return threadLocalNuid ? NUID.threadLocal() : nuid;
     }
 
     int getRespInboxLength() {
-        return options.getInboxPrefix().length() + 22 + 1; // 22 for nuid, 1 for .
+        return options.getInboxPrefix().length() + NUID.totalLength() + 1; // 1 for .
     }
 
-    String createResponseInbox(String inbox) {
-        // Substring gets rid of the * [trailing]
-        return inbox.substring(0, getRespInboxLength()) + nuid.next();
+    // The nuid is written right after the main inbox prefix (the main inbox without the trailing *)
+    // so both the response inbox and the response token can be made from the same chars.
+    char[] createResponseInboxChars() {
+        int len = responseInboxPrefix.length;
+        char[] chars = new char[len + NUID.totalLength()];
+        System.arraycopy(responseInboxPrefix, 0, chars, 0, len);
+        inboxNuid().next(chars, len);
+        return chars;
     }
 
     // If the inbox is long enough, pull out the end part, otherwise, just use the
@@ -1034,7 +1283,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public Message request(String subject, byte[] body, Duration timeout) throws InterruptedException {
-        return requestInternal(subject, null, body, timeout, cancelAction);
+        return userRequest(subject, null, body, timeout);
     }
 
     /**
@@ -1042,7 +1291,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public Message request(String subject, Headers headers, byte[] body, Duration timeout) throws InterruptedException {
-        return requestInternal(subject, headers, body, timeout, cancelAction);
+        return userRequest(subject, headers, body, timeout);
     }
 
     /**
@@ -1051,11 +1300,18 @@ class NatsConnection implements Connection {
     @Override
     public Message request(Message message, Duration timeout) throws InterruptedException {
         validateNotNull(message, "Message");
-        return requestInternal(message.getSubject(), message.getHeaders(), message.getData(), timeout, cancelAction);
+        return userRequest(message.getSubject(), message.getHeaders(), message.getData(), timeout);
     }
 
     Message requestInternal(String subject, Headers headers, byte[] data, Duration timeout, CancelAction cancelAction) throws InterruptedException {
-        CompletableFuture<Message> incoming = requestFutureInternal(subject, headers, data, timeout, cancelAction);
+        return waitForReply(requestFutureInternal(subject, headers, data, timeout, cancelAction), timeout);
+    }
+
+    private Message userRequest(String subject, Headers headers, byte[] body, Duration timeout) throws InterruptedException {
+        return waitForReply(userRequestFuture(subject, headers, body, timeout), timeout);
+    }
+
+    private Message waitForReply(CompletableFuture<Message> incoming, Duration timeout) throws InterruptedException {
         try {
             return incoming.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
         } catch (TimeoutException | ExecutionException | CancellationException e) {
@@ -1068,7 +1324,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public CompletableFuture<Message> request(String subject, byte[] body) {
-        return requestFutureInternal(subject, null, body, null, cancelAction);
+        return userRequestFuture(subject, null, body, null);
     }
 
     /**
@@ -1076,7 +1332,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public CompletableFuture<Message> request(String subject, Headers headers, byte[] body) {
-        return requestFutureInternal(subject, headers, body, null, cancelAction);
+        return userRequestFuture(subject, headers, body, null);
     }
 
     /**
@@ -1084,7 +1340,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public CompletableFuture<Message> requestWithTimeout(String subject, byte[] body, Duration timeout) {
-        return requestFutureInternal(subject, null, body, timeout, cancelAction);
+        return userRequestFuture(subject, null, body, timeout);
     }
 
     /**
@@ -1092,7 +1348,7 @@ class NatsConnection implements Connection {
      */
     @Override
     public CompletableFuture<Message> requestWithTimeout(String subject, Headers headers, byte[] body, Duration timeout) {
-        return requestFutureInternal(subject, headers, body, timeout, cancelAction);
+        return userRequestFuture(subject, headers, body, timeout);
     }
 
     /**
@@ -1101,7 +1357,7 @@ class NatsConnection implements Connection {
     @Override
     public CompletableFuture<Message> requestWithTimeout(Message message, Duration timeout) {
         validateNotNull(message, "Message");
-        return requestFutureInternal(message.getSubject(), message.getHeaders(), message.getData(), timeout, cancelAction);
+        return userRequestFuture(message.getSubject(), message.getHeaders(), message.getData(), timeout);
     }
 
     /**
@@ -1110,7 +1366,141 @@ class NatsConnection implements Connection {
     @Override
     public CompletableFuture<Message> request(Message message) {
         validateNotNull(message, "Message");
-        return requestFutureInternal(message.getSubject(), message.getHeaders(), message.getData(), null, cancelAction);
+        return userRequestFuture(message.getSubject(), message.getHeaders(), message.getData(), null);
+    }
+
+    // requests made through the public api, JetStream requests call the internal methods directly
+    private CompletableFuture<Message> userRequestFuture(String subject, Headers headers, byte[] body, Duration timeout) {
+        if (headers == null || headers.isEmpty()) {
+            long ttlNanos = responseCache == null ? 0 : responseCache.ttlNanos(subject);
+            if (ttlNanos > 0) {
+                Message cached = responseCache.get(subject, body);
+                if (cached != null) {
+                    statistics.incrementResponseCacheHits();
+                    return CompletableFuture.completedFuture(cached);
+                }
+                statistics.incrementResponseCacheMisses();
+                // copy the body for the key, the caller may reuse its array before the reply comes
+                byte[] keyBody = body == null ? null : body.clone();
+                CompletableFuture<Message> f = unheaderedRequestFuture(subject, body, timeout);
+                f.whenComplete((msg, t) -> {
+                    if (t == null && msg != null && !msg.isStatusMessage()) {
+                        responseCache.put(subject, keyBody, msg, ttlNanos);
+                    }
+                });
+                return f;
+            }
+            return unheaderedRequestFuture(subject, body, timeout);
+        }
+        return sendUserRequest(subject, requestHeaders(headers, timeout), body, timeout);
+    }
+
+    private CompletableFuture<Message> unheaderedRequestFuture(String subject, byte[] body, Duration timeout) {
+        if (requestCoalescer != null) {
+            return requestCoalescer.request(subject, body,
+                () -> sendUserRequest(subject, requestHeaders(null, timeout), body, timeout));
+        }
+        return sendUserRequest(subject, requestHeaders(null, timeout), body, timeout);
+    }
+
+    private CompletableFuture<Message> sendUserRequest(String subject, Headers headers, byte[] body, Duration timeout) {
+        CompletableFuture<Message> first = requestFutureInternal(subject, headers, body, timeout, cancelAction);
+        Duration hedgeDelay = options.getRequestHedgeDelay();
+        Timer t = timer;
+        if (hedgeDelay == null || t == null || (timeout != null && timeout.compareTo(hedgeDelay) <= 0)) {
+            return first;
+        }
+
+        long start = System.nanoTime();
+        HedgedResult hedged = new HedgedResult();
+        CompletableFuture<Message> result = hedged.result;
+        AtomicReference<CompletableFuture<Message>> hedge = new AtomicReference<>();
+
+        TimerTask hedgeTask = new TimerTask() {
+            public void run() {
+                // send on the executor, the timer thread also runs the pings
+                try {
+                    executor.submit(() -> {
+                        hedged.sending();
+                        // the copy only gets the time that is left, so the caller never waits longer than the timeout
+                        Duration remaining = timeout == null ? null : timeout.minusNanos(System.nanoTime() - start);
+                        if (result.isDone() || !isConnected() || (remaining != null && (remaining.isZero() || remaining.isNegative()))) {
+                            hedged.notSent();
+                            return;
+                        }
+                        try {
+                            CompletableFuture<Message> second = requestFutureInternal(subject, headers, body, remaining, cancelAction);
+                            hedge.set(second);
+                            if (result.isDone()) {
+                                second.cancel(true); // the first won while this was being sent
+                            }
+                            second.whenComplete(hedged::copyDone);
+                        }
+                        catch (RuntimeException e) {
+                            // closed or draining since the first was sent, that one still counts
+                            hedged.notSent();
+                        }
+                    });
+                }
+                catch (RejectedExecutionException e) {
+                    // the executor is shut down, the first still counts
+                }
+            }
+        };
+
+        first.whenComplete(hedged::copyDone);
+        result.whenComplete((msg, e) -> {
+            // the first to complete wins, cancelling the other removes it from the responses awaiting
+            hedgeTask.cancel();
+            first.cancel(true);
+            CompletableFuture<Message> second = hedge.get();
+            if (second != null) {
+                second.cancel(true);
+            }
+        });
+
+        try {
+            t.schedule(hedgeTask, hedgeDelay.toMillis());
+        }
+        catch (IllegalStateException e) {
+            // the timer was cancelled by close
+        }
+        return result;
+    }
+
+    // completes with the first reply of any copy, and only fails once every copy that was sent has failed
+    static class HedgedResult {
+        final CompletableFuture<Message> result = new CompletableFuture<>();
+        private final AtomicInteger unfinished = new AtomicInteger(1); // the first copy
+        private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+
+        // counted before the copy is sent, so a failure of another can't fail the result while this is sent
+        void sending() {
+            unfinished.incrementAndGet();
+        }
+
+        void copyDone(Message msg, Throwable e) {
+            if (e == null) {
+                result.complete(msg);
+            }
+            else {
+                lastFailure.set(e);
+                if (unfinished.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            }
+        }
+
+        void notSent() {
+            if (unfinished.decrementAndGet() == 0) {
+                result.completeExceptionally(lastFailure.get()); // the others already failed
+            }
+        }
+    }
+
+    // the deadline goes on requests made through the public api, JetStream requests are left as is
+    private Headers requestHeaders(Headers headers, Duration timeout) {
+        return timeout == null || !options.isRequestDeadlineHeader() ? headers : NatsRequestUtil.withDeadline(headers, timeout);
     }
 
     CompletableFuture<Message> requestFutureInternal(String subject, Headers headers, byte[] data, Duration futureTimeout, CancelAction cancelAction) {
@@ -1122,30 +1512,33 @@ class NatsConnection implements Connection {
             throw new IllegalStateException("Connection is Draining");
         }
 
-        if (inboxDispatcher.get() == null) {
-            NatsDispatcher d = dispatcherFactory.createDispatcher(this, this::deliverReply);
-
-            // Theoretically two threads could be here
-            // compareAndSet returns false if thread 2 set the dispatcher
-            // in between the time thread 1 did get above and tried to compareAndSet
-            // really thin edge condition - could have used a lock, but this is probably enough
-            if (inboxDispatcher.compareAndSet(null, d)) {
-                String id = this.nuid.next();
-                this.dispatchers.put(id, d);
-                d.start(id);
-                d.subscribe(this.mainInbox);
-            }
-        }
+        ensureInboxDispatcher();
 
         boolean oldStyle = options.isOldRequestStyle();
-        String responseInbox = oldStyle ? createInbox() : createResponseInbox(this.mainInbox);
-        String responseToken = getResponseToken(responseInbox);
+        String responseInbox;
+        String responseToken;
+        if (oldStyle) {
+            responseInbox = createInbox();
+            responseToken = getResponseToken(responseInbox);
+        }
+        else {
+            char[] chars = createResponseInboxChars();
+            responseInbox = new String(chars);
+            responseToken = new String(chars, responseInboxPrefix.length, NUID.totalLength());
+        }
         NatsRequestCompletableFuture future =
             new NatsRequestCompletableFuture(cancelAction,
                 futureTimeout == null ? options.getRequestCleanupInterval() : futureTimeout, options.useTimeoutException());
 
         if (!oldStyle) {
             responsesAwaiting.put(responseToken, future);
+            // Remove when cancelled by the caller, timeouts and close are removed by the cleanup
+            future.whenComplete((msg, exception) -> {
+                if (exception instanceof CancellationException && !future.wasCancelledClosing()
+                    && !future.wasCancelledTimedOut() && responsesAwaiting.remove(responseToken, future)) {
+                    statistics.decrementOutstandingRequests();
+                }
+            });
         }
         statistics.incrementOutstandingRequests();
 
@@ -1169,6 +1562,84 @@ class NatsConnection implements Connection {
         return future;
     }
 
+    private void ensureInboxDispatcher() {
+        if (inboxDispatcher.get() == null) {
+            NatsDispatcher d = dispatcherFactory.createDispatcher(this, this::deliverReply);
+
+            // Theoretically two threads could be here
+            // compareAndSet returns false if thread 2 set the dispatcher
+            // in between the time thread 1 did get above and tried to compareAndSet
+            // really thin edge condition - could have used a lock, but this is probably enough
+            if (inboxDispatcher.compareAndSet(null, d)) {
+                String id = this.nuid.next();
+                this.dispatchers.put(id, d);
+                d.start(id);
+                d.subscribe(this.mainInbox);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Message> requestMany(String subject, byte[] body, Duration maxWait, int maxCount, Duration stallTime) throws InterruptedException {
+        List<Message> list = new ArrayList<>();
+        requestMany(subject, null, body, maxWait, maxCount, stallTime, list::add);
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int requestMany(String subject, Headers headers, byte[] body, Duration maxWait, int maxCount, Duration stallTime, MessageHandler handler) throws InterruptedException {
+        validateDurationRequired(maxWait);
+        validateNotNull(handler, "Handler");
+        checkPayloadSize(body);
+
+        if (isClosed()) {
+            throw new IllegalStateException("Connection is Closed");
+        } else if (isDraining()) {
+            throw new IllegalStateException("Connection is Draining");
+        }
+
+        ensureInboxDispatcher();
+
+        // the replies come in on the main inbox, deliverReply queues them by token for this thread
+        char[] chars = createResponseInboxChars();
+        String responseInbox = new String(chars);
+        String responseToken = new String(chars, responseInboxPrefix.length, NUID.totalLength());
+        BlockingQueue<Message> replies = new LinkedBlockingQueue<>();
+        responsesAwaitingMany.put(responseToken, replies);
+
+        int count = 0;
+        try {
+            publishInternal(subject, responseInbox, requestHeaders(headers, maxWait), body);
+            writer.flushBuffer();
+            statistics.incrementRequestsSent();
+
+            long maxWaitNanos = maxWait.toNanos();
+            long stallNanos = stallTime == null || stallTime.isNegative() || stallTime.isZero() ? 0 : stallTime.toNanos();
+            long start = System.nanoTime();
+            long timeLeft = maxWaitNanos;
+            while ((maxCount < 1 || count < maxCount) && timeLeft > 0) {
+                long wait = count == 0 || stallNanos == 0 ? timeLeft : Math.min(timeLeft, stallNanos);
+                Message msg = replies.poll(wait, TimeUnit.NANOSECONDS);
+                if (msg == null || (msg.isStatusMessage() && msg.getStatus().getCode() == 503)) {
+                    break; // timed out, stalled or no responders
+                }
+                handler.onMessage(msg);
+                count++;
+                timeLeft = maxWaitNanos - (System.nanoTime() - start);
+            }
+        }
+        finally {
+            responsesAwaitingMany.remove(responseToken);
+        }
+        return count;
+    }
+
     void deliverReply(Message msg) {
         boolean oldStyle = options.isOldRequestStyle();
         String subject = msg.getSubject();
@@ -1198,6 +1669,9 @@ class NatsConnection implements Connection {
             }
             statistics.incrementRepliesReceived();
         }
+        else if (deliverReplyToMany(token, msg)) {
+            statistics.incrementRepliesReceived();
+        }
         else if (!oldStyle && !subject.startsWith(mainInbox)) {
             if (advancedTracking) {
                 if (responsesRespondedTo.get(key) != null) {
@@ -1209,6 +1683,18 @@ class NatsConnection implements Connection {
         }
     }
 
+    private boolean deliverReplyToMany(String token, Message msg) {
+        if (responsesAwaitingMany.isEmpty()) {
+            return false;
+        }
+        BlockingQueue<Message> replies = responsesAwaitingMany.get(token);
+        if (replies == null) {
+            return false;
+        }
+        replies.add(msg);
+        return true;
+    }
+
     public Dispatcher createDispatcher() {
         return createDispatcher(null);
     }
@@ -1336,6 +1822,21 @@ class NatsConnection implements Connection {
         return this.sendPing(false);
     }
 
+    // a soft ping that tells the server pool the round trip time when the pong comes
+    private void timedSoftPing() {
+        NatsUri server = currentServer;
+        long start = System.nanoTime();
+        CompletableFuture<Boolean> pongFuture = softPing();
+        // done right away means no ping was needed
+        if (server != null && pongFuture != null && !pongFuture.isDone()) {
+            pongFuture.thenAccept(pong -> {
+                if (pong) {
+                    serverPool.roundTripTimeMeasured(server, Duration.ofNanos(System.nanoTime() - start));
+                }
+            });
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -1352,7 +1853,12 @@ class NatsConnection implements Connection {
             long time = System.nanoTime();
             writer.queueInternalMessage(new ProtocolMessage(OP_PING_BYTES));
             pongFuture.get(timeout, TimeUnit.MILLISECONDS);
-            return Duration.ofNanos(System.nanoTime() - time);
+            Duration rtt = Duration.ofNanos(System.nanoTime() - time);
+            NatsUri server = currentServer;
+            if (server != null) {
+                serverPool.roundTripTimeMeasured(server, rtt);
+            }
+            return rtt;
         }
         catch (ExecutionException e) {
             throw new IOException(e.getCause());
@@ -14,7 +14,9 @@
 package io.nats.client.impl;
 
 import io.nats.client.Consumer;
+import io.nats.client.PayloadCodec;
 
+import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
@@ -229,6 +231,23 @@ abstract class NatsConsumer implements Consumer {
        return getDrainingFuture();
    }
 
+    /**
+     * Decode the payload if the message is marked as encoded by the codec.
+     * If the payload can't be decoded, the message is delivered as is.
+     */
+    void decodePayload(NatsMessage msg, PayloadCodec codec) {
+        if (codec != null && msg.hasHeaders()
+            && codec.getName().equals(msg.getHeaders().getFirst(PayloadCodec.CONTENT_ENCODING_HDR))) {
+            try {
+                msg.setDecodedPayload(codec.decode(msg.getData()),
+                    new Headers(msg.getHeaders(), true, new String[]{PayloadCodec.CONTENT_ENCODING_HDR}));
+            }
+            catch (IOException e) {
+                connection.processException(e);
+            }
+        }
+    }
+
     /**
      * @return whether this consumer is still processing messages. For a
      *         subscription the answer is false after unsubscribe. For a dispatcher,
@@ -15,13 +15,16 @@ package io.nats.client.impl;
 
 import io.nats.client.Dispatcher;
 import io.nats.client.MessageHandler;
+import io.nats.client.PayloadCodec;
 import io.nats.client.Subscription;
+import io.nats.client.support.NatsRequestUtil;
 
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.nats.client.support.Validator.*;
 
@@ -50,6 +53,11 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
 
     protected final Duration waitForMessage;
 
+    protected volatile PayloadCodec payloadCodec;
+
+    protected final boolean discardExpiredRequests;
+    protected final AtomicLong expiredCount;
+
     NatsDispatcher(NatsConnection conn, MessageHandler handler) {
         super(conn);
         this.defaultHandler = handler;
@@ -60,6 +68,8 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
         this.running = new AtomicBoolean(false);
         this.started = new AtomicBoolean(false);
         this.waitForMessage = Duration.ofMinutes(5); // This can be long since we aren't doing anything
+        this.discardExpiredRequests = conn.getOptions().isDiscardExpiredRequests();
+        this.expiredCount = new AtomicLong();
     }
 
     @Override
@@ -99,13 +109,22 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
                         // but messages might come in while the dispatcher is being closed or after unsubscribe
                         // and the [non-default] handler has already been removed from subscriptionHandlers
                         if (handler != null) {
+                            // an expired request still counts as delivered, so auto unsubscribe limits are honored
                             sub.incrementDeliveredCount();
                             this.incrementDeliveredCount();
 
-                            try {
-                                handler.onMessage(msg);
-                            } catch (Exception exp) {
-                                connection.processException(exp);
+                            if (discardExpiredRequests && NatsRequestUtil.isExpired(msg)) {
+                                // the caller already gave up on this request
+                                expiredCount.incrementAndGet();
+                            }
+                            else {
+                                decodePayload(msg, payloadCodec == null ? connection.getOptions().getPayloadCodec() : payloadCodec);
+
+                                try {
+                                    handler.onMessage(msg);
+                                } catch (Exception exp) {
+                                    connection.processException(exp);
+                                }
                             }
 
                             if (sub.reachedUnsubLimit()) {
@@ -345,6 +364,17 @@ class NatsDispatcher extends NatsConsumer implements Dispatcher, Runnable {
         return this;
     }
 
+    @Override
+    public Dispatcher setPayloadCodec(PayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
+        return this;
+    }
+
+    @Override
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
     void sendUnsubForDrain() {
         this.subscriptionsUsingDefaultHandler.forEach((id, sub)->{
             this.connection.sendUnsub(sub, -1);
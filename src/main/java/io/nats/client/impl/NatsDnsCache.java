@@ -0,0 +1,165 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches host name resolution for all connections in the JVM. A host is resolved once,
+ * concurrent lookups of a host that is not cached wait for the same resolution. When the
+ * addresses are older than the time to live they are still returned, and they are refreshed
+ * in the background. If the refresh fails, the old addresses are kept until the next one works,
+ * but only for the max stale time after the time to live. Older addresses are not returned,
+ * the host is resolved again and waited for, so a host that is gone fails instead of being
+ * answered with its last addresses forever.
+ */
+class NatsDnsCache {
+
+    static final NatsDnsCache SHARED = new NatsDnsCache(NatsDnsCache::resolveWithInetAddress, newRefreshExecutor());
+
+    interface Resolver {
+        List<String> resolve(String host) throws UnknownHostException;
+    }
+
+    private final Resolver resolver;
+    private final Executor refreshExecutor;
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<Entry>> resolving;
+
+    NatsDnsCache(Resolver resolver, Executor refreshExecutor) {
+        this.resolver = resolver;
+        this.refreshExecutor = refreshExecutor;
+        entries = new ConcurrentHashMap<>();
+        resolving = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolve a host
+     * @param host the host
+     * @param ttlNanos how long resolved addresses are fresh
+     * @param maxStaleNanos how long after that they are still used while they can't be refreshed
+     * @return the addresses, not empty
+     * @throws UnknownHostException if the host is not cached, or stale for longer than the max stale time, and cannot be resolved
+     */
+    List<String> resolve(String host, long ttlNanos, long maxStaleNanos) throws UnknownHostException {
+        Entry entry = entries.get(host);
+        if (entry == null) {
+            return resolveAndWait(host).addresses;
+        }
+        long age = System.nanoTime() - entry.resolvedAt;
+        if (age - ttlNanos >= maxStaleNanos) {
+            return resolveAndWait(host).addresses;
+        }
+        if (age >= ttlNanos && entry.refreshing.compareAndSet(false, true)) {
+            try {
+                refreshExecutor.execute(() -> refresh(host, entry));
+            }
+            catch (RejectedExecutionException e) {
+                entry.refreshing.set(false);
+            }
+        }
+        return entry.addresses;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private Entry resolveAndWait(String host) throws UnknownHostException {
+        CompletableFuture<Entry> f = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = resolving.putIfAbsent(host, f);
+        if (inFlight == null) {
+            try {
+                Entry entry = new Entry(resolveNotEmpty(host));
+                entries.put(host, entry);
+                f.complete(entry);
+                return entry;
+            }
+            catch (UnknownHostException | RuntimeException e) {
+                f.completeExceptionally(e);
+                throw e;
+            }
+            finally {
+                resolving.remove(host, f);
+            }
+        }
+
+        try {
+            return inFlight.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnknownHostException(host);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof UnknownHostException) {
+                throw (UnknownHostException) e.getCause();
+            }
+            throw new UnknownHostException(host + ": " + e.getCause());
+        }
+    }
+
+    private void refresh(String host, Entry stale) {
+        try {
+            entries.replace(host, stale, new Entry(resolveNotEmpty(host)));
+        }
+        catch (Exception e) {
+            // keep what we have, try again when it is next used
+            stale.refreshing.set(false);
+        }
+    }
+
+    private List<String> resolveNotEmpty(String host) throws UnknownHostException {
+        List<String> addresses = resolver.resolve(host);
+        if (addresses == null || addresses.isEmpty()) {
+            throw new UnknownHostException(host);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(addresses));
+    }
+
+    private static List<String> resolveWithInetAddress(String host) throws UnknownHostException {
+        List<String> addresses = new ArrayList<>();
+        for (InetAddress a : InetAddress.getAllByName(host)) {
+            addresses.add(a.getHostAddress());
+        }
+        return addresses;
+    }
+
+    private static Executor newRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "nats-dns-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    static class Entry {
+        final List<String> addresses;
+        final long resolvedAt;
+        final AtomicBoolean refreshing;
+
+        Entry(List<String> addresses) {
+            this.addresses = addresses;
+            resolvedAt = System.nanoTime();
+            refreshing = new AtomicBoolean();
+        }
+    }
+}
@@ -14,15 +14,16 @@
 package io.nats.client.impl;
 
 import io.nats.client.*;
-import io.nats.client.api.AckPolicy;
-import io.nats.client.api.ConsumerConfiguration;
-import io.nats.client.api.DeliverPolicy;
-import io.nats.client.api.MessageInfo;
+import io.nats.client.api.Error;
+import io.nats.client.api.*;
 
 import java.io.IOException;
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import static io.nats.client.support.NatsJetStreamConstants.JS_NO_MESSAGE_FOUND_ERR;
+import static io.nats.client.support.NatsJetStreamConstants.*;
+import static io.nats.client.support.NatsRequestCompletableFuture.CancelAction;
 
 public class NatsFeatureBase {
 
@@ -57,6 +58,56 @@ public class NatsFeatureBase {
         }
     }
 
+    protected CompletableFuture<MessageInfo> _getLastAsync(String subject) {
+        return _getAsync(MessageGetRequest.lastForSubject(subject));
+    }
+
+    protected CompletableFuture<MessageInfo> _getBySeqAsync(long seq) {
+        return _getAsync(MessageGetRequest.forSequence(seq));
+    }
+
+    private CompletableFuture<MessageInfo> _getAsync(MessageGetRequest messageGetRequest) {
+        boolean allowDirect;
+        try {
+            allowDirect = js.getCachedStreamInfo(streamName).allowDirect;
+        }
+        catch (IOException | JetStreamApiException e) {
+            CompletableFuture<MessageInfo> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        String requestSubject;
+        byte[] payload;
+        if (allowDirect && messageGetRequest.isLastBySubject()) {
+            requestSubject = String.format(JSAPI_DIRECT_GET_LAST, streamName, messageGetRequest.getLastBySubject());
+            payload = null;
+        }
+        else {
+            requestSubject = String.format(allowDirect ? JSAPI_DIRECT_GET : JSAPI_MSG_GET, streamName);
+            payload = messageGetRequest.serialize();
+        }
+
+        return js.conn.requestFutureInternal(js.prependPrefix(requestSubject), null, payload, js.jso.getRequestTimeout(), CancelAction.CANCEL)
+            .thenApply(resp -> {
+                try {
+                    if (!allowDirect) {
+                        return new MessageInfo(resp, streamName, false).throwOnHasError();
+                    }
+                    if (resp.isStatusMessage()) {
+                        throw new JetStreamApiException(Error.convert(resp.getStatus()));
+                    }
+                    return new MessageInfo(resp, streamName, true);
+                }
+                catch (JetStreamApiException jsae) {
+                    if (jsae.getApiErrorCode() == JS_NO_MESSAGE_FOUND_ERR) {
+                        return null;
+                    }
+                    throw new CompletionException(jsae);
+                }
+            });
+    }
+
     protected MessageInfo _getBySeq(long seq) throws IOException, JetStreamApiException {
         try {
             return jsm.getMessage(streamName, seq);
@@ -81,10 +132,12 @@ public class NatsFeatureBase {
             .build();
 
         Duration timeout = js.jso.getRequestTimeout();
-        JetStreamSubscription sub = js.subscribe(subject, pso);
+        NatsJetStreamSubscription sub = (NatsJetStreamSubscription) js.subscribe(subject, pso);
         try {
+            // the pending count comes with the consumer create response, no need to ask for it again
+            ConsumerInfo ci = sub.getCreatedConsumerInfo();
             boolean lastWasNull = false;
-            long pending = sub.getConsumerInfo().getCalculatedPending();
+            long pending = (ci == null ? sub.getConsumerInfo() : ci).getCalculatedPending();
             while (pending > 0) { // no need to loop if nothing pending
                 Message m = sub.nextMessage(timeout);
                 if (m == null) {
@@ -192,17 +192,17 @@ public class NatsJetStream extends NatsJetStreamImpl implements JetStream {
     }
 
     private Headers mergePublishOptions(Headers headers, PublishOptions opts) {
-        // never touch the user's original headers
-        Headers merged = headers == null ? null : new Headers(headers);
-
-        if (opts != null) {
-            merged = mergeNum(merged, EXPECTED_LAST_SEQ_HDR, opts.getExpectedLastSequence());
-            merged = mergeNum(merged, EXPECTED_LAST_SUB_SEQ_HDR, opts.getExpectedLastSubjectSequence());
-            merged = mergeString(merged, EXPECTED_LAST_MSG_ID_HDR, opts.getExpectedLastMsgId());
-            merged = mergeString(merged, EXPECTED_STREAM_HDR, opts.getExpectedStream());
-            merged = mergeString(merged, MSG_ID_HDR, opts.getMessageId());
+        if (opts == null) {
+            return headers; // nothing to merge, the connection takes care of copying
         }
 
+        // never touch the user's original headers
+        Headers merged = headers == null ? null : new Headers(headers);
+        merged = mergeNum(merged, EXPECTED_LAST_SEQ_HDR, opts.getExpectedLastSequence());
+        merged = mergeNum(merged, EXPECTED_LAST_SUB_SEQ_HDR, opts.getExpectedLastSubjectSequence());
+        merged = mergeString(merged, EXPECTED_LAST_MSG_ID_HDR, opts.getExpectedLastMsgId());
+        merged = mergeString(merged, EXPECTED_STREAM_HDR, opts.getExpectedStream());
+        merged = mergeString(merged, MSG_ID_HDR, opts.getMessageId());
         return merged;
     }
 
@@ -125,8 +125,7 @@ class NatsJetStreamImpl implements NatsJetStreamConstants {
 
     void _createConsumerUnsubscribeOnException(String stream, ConsumerConfiguration cc, NatsJetStreamSubscription sub) throws IOException, JetStreamApiException {
         try {
-            ConsumerInfo ci = _createConsumer(stream, cc);
-            sub.setConsumerName(ci.getName());
+            sub.setCreatedConsumerInfo(_createConsumer(stream, cc));
         }
         catch (IOException | JetStreamApiException e) {
             // create consumer can fail, unsubscribe and then throw the exception to the user
@@ -35,6 +35,7 @@ public class NatsJetStreamSubscription extends NatsSubscription implements JetSt
 
     protected String stream;
     protected String consumerName;
+    protected ConsumerInfo createdConsumerInfo;
 
     protected MessageManager manager;
 
@@ -58,6 +59,20 @@ public class NatsJetStreamSubscription extends NatsSubscription implements JetSt
         this.consumerName = consumerName;
     }
 
+    void setCreatedConsumerInfo(ConsumerInfo ci) {
+        this.consumerName = ci.getName();
+        this.createdConsumerInfo = ci;
+    }
+
+    /**
+     * The consumer info returned when this subscription created its consumer,
+     * null if the subscription bound to an existing consumer. Unlike {@link #getConsumerInfo()}
+     * this does not make a request, but the info is as of creation.
+     */
+    ConsumerInfo getCreatedConsumerInfo() {
+        return createdConsumerInfo;
+    }
+
     @Override
     public String getConsumerName() {
         return consumerName;
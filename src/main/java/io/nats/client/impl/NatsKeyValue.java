@@ -16,6 +16,8 @@ package io.nats.client.impl;
 import io.nats.client.JetStreamApiException;
 import io.nats.client.KeyValue;
 import io.nats.client.KeyValueOptions;
+import io.nats.client.KeyValueReplica;
+import io.nats.client.Message;
 import io.nats.client.PurgeOptions;
 import io.nats.client.api.*;
 import io.nats.client.support.DateTimeUtils;
@@ -23,9 +25,16 @@ import io.nats.client.support.Validator;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import static io.nats.client.support.NatsConstants.DOT;
 import static io.nats.client.support.NatsJetStreamConstants.EXPECTED_LAST_SUB_SEQ_HDR;
@@ -35,10 +44,16 @@ import static io.nats.client.support.Validator.*;
 
 public class NatsKeyValue extends NatsFeatureBase implements KeyValue {
 
+    private static final int CONSUME_KEYS_QUEUE_CAPACITY = 1000;
+
     private final String bucketName;
     private final String streamSubject;
     private final String readPrefix;
     private final String writePrefix;
+    private final NatsKeyValueNearCache nearCache;
+    private final int maxAsyncInFlight;
+    private final Semaphore asyncWindow;
+    private final long consumeKeysTimeoutMillis;
 
     NatsKeyValue(NatsConnection connection, String bucketName, KeyValueOptions kvo) throws IOException {
         super(connection, kvo);
@@ -77,6 +92,29 @@ public class NatsKeyValue extends NatsFeatureBase implements KeyValue {
 
         readPrefix = readTemp;
         writePrefix = writeTemp;
+        maxAsyncInFlight = kvo == null ? KeyValueOptions.DEFAULT_MAX_ASYNC_IN_FLIGHT : kvo.getMaxAsyncInFlight();
+        asyncWindow = new Semaphore(maxAsyncInFlight);
+        consumeKeysTimeoutMillis = kvo == null || kvo.getConsumeKeysTimeout() == null
+            ? js.jso.getRequestTimeout().toMillis()
+            : kvo.getConsumeKeysTimeout().toMillis();
+
+        nearCache = kvo != null && kvo.isNearCacheEnabled()
+            ? new NatsKeyValueNearCache(kvo.getNearCacheMaxEntries(), kvo.getNearCacheTtl())
+            : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void closeNearCache() {
+        if (nearCache != null) {
+            nearCache.close();
+        }
+    }
+
+    NatsKeyValueNearCache getNearCache() {
+        return nearCache;
     }
 
     String readSubject(String key) {
@@ -100,7 +138,22 @@ public class NatsKeyValue extends NatsFeatureBase implements KeyValue {
      */
     @Override
     public KeyValueEntry get(String key) throws IOException, JetStreamApiException {
-        return existingOnly(_get(validateNonWildcardKvKeyRequired(key)));
+        validateNonWildcardKvKeyRequired(key);
+        if (nearCache == null || !nearCache.startWatch(this)) {
+            return existingOnly(_get(key));
+        }
+
+        KeyValueEntry kve = nearCache.get(key);
+        if (kve == null) {
+            nearCache.readStarted(key);
+            try {
+                kve = _get(key);
+            }
+            finally {
+                nearCache.readFinished(key, kve);
+            }
+        }
+        return existingOnly(kve);
     }
 
     /**
@@ -213,7 +266,163 @@ public class NatsKeyValue extends NatsFeatureBase implements KeyValue {
 
     private PublishAck _write(String key, byte[] data, Headers h) throws IOException, JetStreamApiException {
         validateNonWildcardKvKeyRequired(key);
-        return js.publish(NatsMessage.builder().subject(writeSubject(key)).data(data).headers(h).build());
+        PublishAck pa = js.publish(NatsMessage.builder().subject(writeSubject(key)).data(data).headers(h).build());
+        if (nearCache != null) {
+            // don't wait for the watch, a get after this write must not see an older revision
+            nearCache.invalidate(key, pa.getSeqno());
+        }
+        return pa;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<KeyValueEntry> getAsync(String key) {
+        validateNonWildcardKvKeyRequired(key);
+        boolean useNearCache;
+        try {
+            useNearCache = nearCache != null && nearCache.startWatch(this);
+        }
+        catch (IOException | JetStreamApiException e) {
+            return failedFuture(e);
+        }
+        if (!useNearCache) {
+            return windowed(() -> _getLastAsync(readSubject(key)))
+                .thenApply(mi -> mi == null ? null : existingOnly(new KeyValueEntry(mi)));
+        }
+
+        KeyValueEntry cached = nearCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(existingOnly(cached));
+        }
+        // the read is only tracked once it has a place in the window, so one that never starts leaves nothing behind
+        return windowed(() -> {
+            nearCache.readStarted(key);
+            CompletableFuture<MessageInfo> f;
+            try {
+                f = _getLastAsync(readSubject(key));
+            }
+            catch (RuntimeException e) {
+                nearCache.readFinished(key, null);
+                throw e;
+            }
+            return f.thenApply(mi -> mi == null ? null : new KeyValueEntry(mi))
+                .whenComplete((kve, t) -> nearCache.readFinished(key, kve));
+        }).thenApply(this::existingOnly);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Long> putAsync(String key, byte[] value) {
+        return _writeAsync(key, value, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Long> putAsync(String key, String value) {
+        return _writeAsync(key, value.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Long> updateAsync(String key, byte[] value, long expectedRevision) {
+        Headers h = new Headers().add(EXPECTED_LAST_SUB_SEQ_HDR, Long.toString(expectedRevision));
+        return _writeAsync(key, value, h);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Long> createAsync(String key, byte[] value) {
+        validateNonWildcardKvKeyRequired(key);
+        // the follow up runs on the executor, it may wait for the window, which the thread completing the first must not do
+        return updateAsync(key, value, 0).handleAsync((rev, t) -> {
+            if (t == null) {
+                return CompletableFuture.completedFuture(rev);
+            }
+            if (apiErrorCode(t) != JS_WRONG_LAST_SEQUENCE) {
+                return NatsKeyValue.<Long>failedFuture(t);
+            }
+            // must check if the last message for this subject is a delete or purge
+            return windowed(() -> _getLastAsync(readSubject(key))).thenCompose(mi -> {
+                KeyValueEntry kve = mi == null ? null : new KeyValueEntry(mi);
+                if (kve != null && kve.getOperation() != KeyValueOperation.PUT) {
+                    return updateAsync(key, value, kve.getRevision());
+                }
+                return failedFuture(t);
+            });
+        }, js.conn.getOptions().getExecutor()).thenCompose(f -> f);
+    }
+
+    private static int apiErrorCode(Throwable t) {
+        while (t != null) {
+            if (t instanceof JetStreamApiException) {
+                return ((JetStreamApiException)t).getApiErrorCode();
+            }
+            t = t.getCause();
+        }
+        return -1;
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Throwable t) {
+        CompletableFuture<T> failed = new CompletableFuture<>();
+        failed.completeExceptionally(t);
+        return failed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompletableFuture<Long> deleteAsync(String key) {
+        return _writeAsync(key, null, getDeleteHeaders());
+    }
+
+    private CompletableFuture<Long> _writeAsync(String key, byte[] data, Headers h) {
+        validateNonWildcardKvKeyRequired(key);
+        Message m = NatsMessage.builder().subject(writeSubject(key)).data(data).headers(h).build();
+        return windowed(() -> js.publishAsync(m))
+            .thenApply(pa -> {
+                if (nearCache != null) {
+                    nearCache.invalidate(key, pa.getSeqno());
+                }
+                return pa.getSeqno();
+            });
+    }
+
+    /**
+     * Takes a place in the async window, waiting up to the request timeout for one if the window is full,
+     * and gives it back when the request completes.
+     */
+    private <T> CompletableFuture<T> windowed(Supplier<CompletableFuture<T>> request) {
+        Duration timeout = js.jso.getRequestTimeout();
+        try {
+            if (!asyncWindow.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return failedFuture(new TimeoutException("No place in the async window of " + maxAsyncInFlight + " within " + timeout.toMillis() + "ms"));
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failedFuture(e);
+        }
+
+        CompletableFuture<T> f;
+        try {
+            f = request.get();
+        }
+        catch (RuntimeException e) {
+            asyncWindow.release();
+            throw e;
+        }
+        return f.whenComplete((t, throwable) -> asyncWindow.release());
     }
 
     @Override
@@ -229,19 +438,98 @@ public class NatsKeyValue extends NatsFeatureBase implements KeyValue {
         return new NatsKeyValueWatchSubscription(this, ">", watcher, watchOptions);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeyValueReplica createReplica(Duration loadTimeout) throws IOException, JetStreamApiException, InterruptedException, TimeoutException {
+        validateNotNull(loadTimeout, "Load timeout is required");
+        return new NatsKeyValueReplica(this, loadTimeout);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public List<String> keys() throws IOException, JetStreamApiException, InterruptedException {
+        return keys(">");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> keys(String filter) throws IOException, JetStreamApiException, InterruptedException {
+        validateKvKeyWildcardAllowedRequired(filter);
         List<String> list = new ArrayList<>();
-        visitSubject(readSubject(">"), DeliverPolicy.LastPerSubject, true, false, m -> {
+        visitKeys(filter, list::add);
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkedBlockingQueue<KeyResult> consumeKeys() {
+        return consumeKeys(">");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkedBlockingQueue<KeyResult> consumeKeys(String filter) {
+        validateKvKeyWildcardAllowedRequired(filter);
+        LinkedBlockingQueue<KeyResult> q = new LinkedBlockingQueue<>(CONSUME_KEYS_QUEUE_CAPACITY);
+        js.conn.getOptions().getExecutor().submit(() -> {
+            try {
+                visitKeys(filter, key -> offerKeyResult(q, new KeyResult(key)));
+                offerKeyResult(q, new KeyResult());
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                endKeyResults(q, e);
+            }
+            catch (IOException | JetStreamApiException | RuntimeException e) {
+                endKeyResults(q, e);
+            }
+        });
+        return q;
+    }
+
+    /**
+     * Stops the listing instead of waiting forever if the queue is not read,
+     * so an abandoned queue does not hold an executor thread and a consumer on the server.
+     */
+    private void offerKeyResult(LinkedBlockingQueue<KeyResult> q, KeyResult kr) throws InterruptedException {
+        if (!q.offer(kr, consumeKeysTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Key queue was not read for " + consumeKeysTimeoutMillis + "ms, listing stopped.");
+        }
+    }
+
+    /**
+     * The reader always gets a done result with the exception, so a listing that stopped
+     * does not look like one that finished. If the queue is full, make room for it.
+     */
+    private static void endKeyResults(LinkedBlockingQueue<KeyResult> q, Exception e) {
+        KeyResult kr = new KeyResult(e);
+        while (!q.offer(kr)) {
+            q.clear();
+        }
+    }
+
+    private interface KeyHandler {
+        void onKey(String key) throws InterruptedException;
+    }
+
+    private void visitKeys(String filter, KeyHandler handler) throws IOException, JetStreamApiException, InterruptedException {
+        // ordered so the push consumer is flow controlled, keys arrive only as fast as they are handled
+        visitSubject(readSubject(filter), DeliverPolicy.LastPerSubject, true, true, m -> {
             KeyValueOperation op = getOperation(m.getHeaders());
             if (op == KeyValueOperation.PUT) {
-                list.add(new BucketAndKey(m).key);
+                handler.onKey(new BucketAndKey(m).key);
             }
         });
-        return list;
     }
 
     /**
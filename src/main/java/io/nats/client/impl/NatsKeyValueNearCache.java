@@ -0,0 +1,194 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.JetStreamApiException;
+import io.nats.client.api.KeyValueEntry;
+import io.nats.client.api.KeyValueWatchOption;
+import io.nats.client.api.KeyValueWatcher;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A size bound, least recently used cache of the last entry per key.
+ * It is a watcher of all updates to the bucket, so cached entries are
+ * replaced by newer revisions as the server reports them.
+ * Deletes and purges are cached as entries too, since that is also what the server returns.
+ * <p>The watch is started by the first read that uses the cache, not when the KeyValue is created,
+ * and is stopped by {@link #close()}.</p>
+ * <p>While a key is being read from the server, the newest revision the watch or a local write
+ * reports for that key is remembered. The value read is only cached if it is not older than that,
+ * otherwise the read could put back a revision that was already replaced.</p>
+ */
+class NatsKeyValueNearCache implements KeyValueWatcher {
+
+    private final long ttlNanos;
+    private final Map<String, Cached> map;
+    private final Map<String, Reading> reading;
+    private final Object watchLock;
+    private NatsKeyValueWatchSubscription watchSub;
+    private volatile boolean watching;
+    private volatile boolean closed;
+
+    NatsKeyValueNearCache(int maxEntries, Duration ttl) {
+        ttlNanos = ttl == null ? 0 : ttl.toNanos();
+        map = new LinkedHashMap<String, Cached>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        reading = new HashMap<>();
+        watchLock = new Object();
+    }
+
+    /**
+     * Start the watch that keeps the cache up to date if it is not running yet.
+     * @param kv the KeyValue to watch
+     * @return true if the cache can be used, false if it has been closed
+     * @throws IOException if the watch cannot be started
+     * @throws JetStreamApiException if the watch cannot be started
+     */
+    boolean startWatch(NatsKeyValue kv) throws IOException, JetStreamApiException {
+        if (watching) {
+            return true;
+        }
+        synchronized (watchLock) {
+            if (!watching && !closed) {
+                try {
+                    watchSub = kv.watchAll(this, KeyValueWatchOption.UPDATES_ONLY);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                watching = true;
+            }
+            return watching;
+        }
+    }
+
+    /**
+     * Stop the watch and empty the cache. Reads are not cached after this.
+     */
+    void close() {
+        NatsKeyValueWatchSubscription sub;
+        synchronized (watchLock) {
+            closed = true;
+            watching = false;
+            sub = watchSub;
+            watchSub = null;
+        }
+        if (sub != null) {
+            sub.unsubscribe();
+        }
+        synchronized (this) {
+            map.clear();
+        }
+    }
+
+    synchronized KeyValueEntry get(String key) {
+        Cached c = map.get(key);
+        if (c == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - c.cachedAt > ttlNanos) {
+            map.remove(key);
+            return null;
+        }
+        return c.kve;
+    }
+
+    /**
+     * Call before reading a key from the server, and then {@link #readFinished(String, KeyValueEntry)}
+     * @param key the key
+     */
+    synchronized void readStarted(String key) {
+        reading.computeIfAbsent(key, k -> new Reading()).readers++;
+    }
+
+    /**
+     * Call when a read of a key from the server is done, caches the entry read if it is still current
+     * @param key the key
+     * @param kve the entry read, or null if there is none or the read failed
+     */
+    synchronized void readFinished(String key, KeyValueEntry kve) {
+        Reading r = reading.get(key);
+        if (--r.readers == 0) {
+            reading.remove(key);
+        }
+        if (kve != null && !closed && r.newestRevision <= kve.getRevision()) {
+            Cached c = map.get(key);
+            if (c == null || c.kve.getRevision() < kve.getRevision()) {
+                map.put(key, new Cached(kve));
+            }
+        }
+    }
+
+    synchronized void invalidate(String key, long revision) {
+        updated(key, revision); // a read already in flight might be older than this write
+        Cached c = map.get(key);
+        if (c != null && c.kve.getRevision() < revision) {
+            map.remove(key);
+        }
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    synchronized int readsInFlight() {
+        return reading.size();
+    }
+
+    @Override
+    public synchronized void watch(KeyValueEntry kve) {
+        updated(kve.getKey(), kve.getRevision());
+        Cached c = map.get(kve.getKey());
+        if (c != null && c.kve.getRevision() < kve.getRevision()) {
+            map.put(kve.getKey(), new Cached(kve));
+        }
+    }
+
+    private void updated(String key, long revision) {
+        Reading r = reading.get(key);
+        if (r != null && r.newestRevision < revision) {
+            r.newestRevision = revision;
+        }
+    }
+
+    @Override
+    public void endOfData() {
+        // the watch is only for updates, nothing to do
+    }
+
+    static class Reading {
+        int readers;
+        long newestRevision;
+    }
+
+    static class Cached {
+        final KeyValueEntry kve;
+        final long cachedAt;
+
+        Cached(KeyValueEntry kve) {
+            this.kve = kve;
+            this.cachedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.JetStreamApiException;
+import io.nats.client.KeyValueReplica;
+import io.nats.client.api.KeyValueEntry;
+import io.nats.client.api.KeyValueOperation;
+import io.nats.client.api.KeyValueWatcher;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The replica watches the whole bucket with the default last per subject deliver policy,
+ * which is an ordered consumer that first delivers the last entry of every key and then
+ * keeps delivering updates. Single key reads don't lock. Scans take the read lock
+ * so they can't see part of an update, each update is applied under the write lock.
+ */
+class NatsKeyValueReplica implements KeyValueReplica, KeyValueWatcher {
+
+    private final String bucketName;
+    private final ConcurrentSkipListMap<String, KeyValueEntry> map;
+    private final ReentrantReadWriteLock rwLock;
+    private final Object revisionLock;
+    private final CountDownLatch loaded;
+    private volatile long lastRevision;
+    private NatsKeyValueWatchSubscription watchSub;
+
+    NatsKeyValueReplica(NatsKeyValue kv, Duration loadTimeout) throws IOException, JetStreamApiException, InterruptedException, TimeoutException {
+        bucketName = kv.getBucketName();
+        map = new ConcurrentSkipListMap<>();
+        rwLock = new ReentrantReadWriteLock();
+        revisionLock = new Object();
+        loaded = new CountDownLatch(1);
+        watchSub = kv.watchAll(this);
+        if (!loaded.await(loadTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            close();
+            throw new TimeoutException("Replica of bucket " + bucketName + " not loaded in time.");
+        }
+    }
+
+    @Override
+    public void watch(KeyValueEntry kve) {
+        rwLock.writeLock().lock();
+        try {
+            if (kve.getOperation() == KeyValueOperation.PUT) {
+                map.put(kve.getKey(), kve);
+            }
+            else {
+                map.remove(kve.getKey());
+            }
+            lastRevision = kve.getRevision();
+        }
+        finally {
+            rwLock.writeLock().unlock();
+        }
+        synchronized (revisionLock) {
+            revisionLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void endOfData() {
+        loaded.countDown();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public KeyValueEntry get(String key) {
+        return map.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> keys() {
+        return keys("");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> keys(String prefix) {
+        List<String> list = new ArrayList<>();
+        rwLock.readLock().lock();
+        try {
+            for (String key : map.tailMap(prefix).keySet()) {
+                if (!key.startsWith(prefix)) {
+                    break;
+                }
+                list.add(key);
+            }
+        }
+        finally {
+            rwLock.readLock().unlock();
+        }
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<KeyValueEntry> entries(String prefix) {
+        List<KeyValueEntry> list = new ArrayList<>();
+        rwLock.readLock().lock();
+        try {
+            for (Map.Entry<String, KeyValueEntry> entry : map.tailMap(prefix).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    break;
+                }
+                list.add(entry.getValue());
+            }
+        }
+        finally {
+            rwLock.readLock().unlock();
+        }
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getLastRevision() {
+        return lastRevision;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean waitForRevision(long revision, Duration timeout) throws InterruptedException {
+        long end = System.nanoTime() + timeout.toNanos();
+        synchronized (revisionLock) {
+            while (lastRevision < revision) {
+                long waitMillis = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+                if (waitMillis <= 0) {
+                    return false;
+                }
+                revisionLock.wait(waitMillis);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void close() {
+        if (watchSub != null) {
+            watchSub.unsubscribe();
+            watchSub = null;
+        }
+    }
+}
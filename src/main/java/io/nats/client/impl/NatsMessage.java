@@ -182,6 +182,12 @@ public class NatsMessage implements Message {
         return subscription;
     }
 
+    void setDecodedPayload(byte[] data, Headers headers) {
+        this.data = data;
+        this.dataLen = data.length;
+        this.headers = headers;
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // Public Interface Methods
     // ----------------------------------------------------------------------------------------------------
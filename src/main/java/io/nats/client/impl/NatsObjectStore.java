@@ -20,12 +20,19 @@ import io.nats.client.support.Digester;
 import io.nats.client.support.Validator;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static io.nats.client.support.NatsJetStreamClientError.*;
 import static io.nats.client.support.NatsObjectStoreUtil.*;
@@ -38,6 +45,7 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
     private final String pubSubChunkPrefix;
     private final String rawMetaPrefix;
     private final String pubSubMetaPrefix;
+    private NatsObjectStoreDiskCache diskCache;
 
     NatsObjectStore(NatsConnection connection, String bucketName, ObjectStoreOptions oso) throws IOException {
         super(connection, oso);
@@ -103,44 +111,175 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
      */
     @Override
     public ObjectInfo put(ObjectMeta meta, InputStream inputStream) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        validatePutMeta(meta);
+        Validator.validateNotNull(inputStream, "InputStream");
+        int chunkSize = chunkSize(meta);
+
+        try {
+            return putChunks(meta, chunkSize, new ChunkSupplier() {
+                boolean done;
+
+                @Override
+                public byte[] next() throws IOException {
+                    if (done) {
+                        return null;
+                    }
+                    // every chunk needs its own array since it is not written until later
+                    byte[] buffer = new byte[chunkSize];
+                    int red = readChunk(inputStream, buffer);
+                    if (red < chunkSize) {
+                        done = true; // the stream is done
+                        // only the last chunk can be short, so this is the only copy
+                        return red == 0 ? null : Arrays.copyOf(buffer, red);
+                    }
+                    return buffer;
+                }
+            });
+        }
+        finally {
+            try { inputStream.close(); } catch (IOException ignore) {}
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ObjectInfo put(ObjectMeta meta, File file) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        validatePutMeta(meta);
+        Validator.validateNotNull(file, "File");
+        int chunkSize = chunkSize(meta);
+
+        if (oso != null && oso.isDeduplicate()) {
+            ObjectInfo oi = putExisting(meta, file.length(), () -> digest(file));
+            if (oi != null) {
+                return oi;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return putChunks(meta, chunkSize, new ChunkSupplier() {
+                long position = 0;
+                long size = channel.size();
+
+                @Override
+                public byte[] next() throws IOException {
+                    if (position >= size) {
+                        return null;
+                    }
+                    // the size is known, so every chunk is read straight into an array of its exact length
+                    byte[] chunk = new byte[(int)Math.min(chunkSize, size - position)];
+                    ByteBuffer bb = ByteBuffer.wrap(chunk);
+                    while (bb.hasRemaining()) {
+                        if (channel.read(bb, position + bb.position()) == -1) {
+                            size = position + bb.position(); // the file got shorter while reading
+                            chunk = Arrays.copyOf(chunk, bb.position());
+                            break;
+                        }
+                    }
+                    position += chunk.length;
+                    return chunk.length == 0 ? null : chunk;
+                }
+            });
+        }
+    }
+
+    private static String digest(File file) throws IOException, NoSuchAlgorithmException {
+        Digester digester = new Digester();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer bb = ByteBuffer.allocate(DEFAULT_CHUNK_SIZE);
+            while (channel.read(bb) != -1) {
+                digester.update(bb.array(), 0, bb.position());
+                bb.clear();
+            }
+        }
+        return digester.getDigestEntry();
+    }
+
+    private interface DigestSupplier {
+        String digest() throws IOException, NoSuchAlgorithmException;
+    }
+
+    /**
+     * If the object already holds the same content, only publish the new meta, keeping the existing chunks.
+     * Content is not shared with objects of other names, since deleting an object purges its chunks.
+     * @return the info or null if the content must be uploaded
+     */
+    private ObjectInfo putExisting(ObjectMeta meta, long size, DigestSupplier digestSupplier) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        ObjectInfo existing = getInfo(meta.getObjectName(), false);
+        // the size is checked first so the content is only digested when it could match
+        if (existing == null || existing.isLink() || existing.getSize() != size) {
+            return null;
+        }
+        String digest = digestSupplier.digest();
+        if (!digest.equals(existing.getDigest())) {
+            return null;
+        }
+        return publishMeta(ObjectInfo.builder(bucketName, meta)
+            .size(existing.getSize())
+            .chunks(existing.getChunks())
+            .nuid(existing.getNuid())
+            .chunkSize(existing.getObjectMeta().getObjectMetaOptions().getChunkSize())
+            .digest(digest)
+            .build());
+    }
+
+    private void validatePutMeta(ObjectMeta meta) {
         Validator.validateNotNull(meta, "ObjectMeta");
         Validator.validateNotNull(meta.getObjectName(), "ObjectMeta name");
-        Validator.validateNotNull(inputStream, "InputStream");
         if (meta.getObjectMetaOptions().getLink() != null) {
             throw OsLinkNotAllowOnPut.instance();
         }
+    }
 
+    private static int chunkSize(ObjectMeta meta) {
+        int chunkSize = meta.getObjectMetaOptions().getChunkSize();
+        return chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize;
+    }
+
+    private interface ChunkSupplier {
+        /**
+         * @return the next chunk or null if there are no more
+         */
+        byte[] next() throws IOException;
+    }
+
+    private ObjectInfo putChunks(ObjectMeta meta, int chunkSize, ChunkSupplier chunkSupplier) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
         String nuid = NUID.nextGlobal();
         String chunkSubject = pubSubChunkSubject(nuid);
 
-        int chunkSize = meta.getObjectMetaOptions().getChunkSize();
-        if (chunkSize <= 0) {
-            chunkSize = DEFAULT_CHUNK_SIZE;
-        }
+        // chunks are published without waiting for each ack, up to the window
+        int window = oso == null ? ObjectStoreOptions.DEFAULT_MAX_PENDING_CHUNKS : oso.getMaxPendingChunks();
+        ArrayDeque<CompletableFuture<PublishAck>> pending = new ArrayDeque<>(window);
 
         try {
             Digester digester = new Digester();
             long totalSize = 0; // track total bytes read to make sure
             int chunks = 0;
 
-            // working with chunkSize number of bytes each time.
-            byte[] buffer = new byte[chunkSize];
-            int red = inputStream.read(buffer);
-            while (red != -1) { // keep reading while not receiving the end of file mark (-1)
-                // copy if red is less than buffer length
-                byte[] payload = red == buffer.length ? buffer : Arrays.copyOfRange(buffer, 0, red);
-
+            byte[] payload = chunkSupplier.next();
+            while (payload != null) {
                 // digest the actual bytes
                 digester.update(payload);
 
                 // publish the payload
-                js.publish(chunkSubject, payload);
+                if (pending.size() == window) {
+                    waitForAck(pending.poll());
+                }
+                CompletableFuture<PublishAck> f = js.publishAsync(chunkSubject, payload);
+                if (f != null) { // null when the JetStream options say publish no ack
+                    pending.add(f);
+                }
 
                 // track total chunks and bytes
                 chunks++;
-                totalSize += red;
+                totalSize += payload.length;
+
+                payload = chunkSupplier.next();
+            }
 
-                red = inputStream.read(buffer);
+            while (!pending.isEmpty()) {
+                waitForAck(pending.poll());
             }
 
             return publishMeta(ObjectInfo.builder(bucketName, meta)
@@ -151,7 +290,11 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
                 .digest(digester.getDigestEntry())
                 .build());
         }
-        catch (IOException | JetStreamApiException | NoSuchAlgorithmException e) {
+        catch (IOException | JetStreamApiException | NoSuchAlgorithmException | RuntimeException e) {
+            // let the chunks in flight land so the purge removes them too
+            for (CompletableFuture<PublishAck> f : pending) {
+                try { f.get(); } catch (Exception ignore) {}
+            }
             try {
                 jsm.purgeStream(streamName, PurgeOptions.subject(rawChunkSubject(nuid)));
             }
@@ -159,8 +302,48 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
 
             throw e;
         }
-        finally {
-            try { inputStream.close(); } catch (IOException ignore) {}
+    }
+
+    /**
+     * Read until the buffer is full or the stream ends, so only the last chunk can be short
+     * @return the number of bytes read, 0 at the end of the stream
+     */
+    private static int readChunk(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int red = in.read(buffer, total, buffer.length - total);
+            if (red == -1) {
+                break;
+            }
+            total += red;
+        }
+        return total;
+    }
+
+    private static void waitForAck(CompletableFuture<PublishAck> f) throws IOException, JetStreamApiException {
+        try {
+            f.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+        catch (CancellationException e) {
+            throw new IOException(e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            // publishAsync wraps checked exceptions
+            if (cause instanceof RuntimeException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof JetStreamApiException) {
+                throw (JetStreamApiException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
         }
     }
 
@@ -177,7 +360,14 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
      */
     @Override
     public ObjectInfo put(String objectName, byte[] input) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
-        return put(ObjectMeta.objectName(objectName), new ByteArrayInputStream(input));
+        ObjectMeta meta = ObjectMeta.objectName(objectName);
+        if (oso != null && oso.isDeduplicate()) {
+            ObjectInfo oi = putExisting(meta, input.length, () -> new Digester().update(input).getDigestEntry());
+            if (oi != null) {
+                return oi;
+            }
+        }
+        return put(meta, new ByteArrayInputStream(input));
     }
 
     /**
@@ -185,7 +375,7 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
      */
     @Override
     public ObjectInfo put(File file) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
-        return put(ObjectMeta.objectName(file.getName()), Files.newInputStream(file.toPath()));
+        return put(ObjectMeta.objectName(file.getName()), file);
     }
 
     /**
@@ -214,53 +404,155 @@ public class NatsObjectStore extends NatsFeatureBase implements ObjectStore {
             return js.conn.objectStore(link.getBucket(), oso).get(link.getObjectName(), out);
         }
 
-        Digester digester = new Digester();
-        long totalBytes = 0;
-        long totalChunks = 0;
-
-        // if there is one chunk, just go get the message directly and we're done.
-        if (oi.getChunks() == 1) {
-            MessageInfo mi = jsm.getLastMessage(streamName, rawChunkSubject(oi.getNuid()));
-            byte[] data = mi.getData();
-
-            // track the byte count and chunks
-            // update the digest
-            // write the bytes to the output file
-            totalBytes = data.length;
-            totalChunks = 1;
-            digester.update(data);
-            out.write(data);
+        NatsObjectStoreDiskCache cache = diskCache();
+        if (cache != null && cache.read(oi, out)) {
+            return oi;
         }
-        else {
 
-            JetStreamSubscription sub = js.subscribe(pubSubChunkSubject(oi.getNuid()),
-                PushSubscribeOptions.builder().stream(streamName).ordered(true).build());
+        NatsObjectStoreDiskCache.Fill fill = cache == null ? null : cache.fill(oi, out);
+        OutputStream target = fill == null ? out : fill;
+        try {
+            Digester digester = new Digester();
+            long totalBytes = 0;
+            long totalChunks = 0;
 
-            Message m = sub.nextMessage(Duration.ofSeconds(1));
-            while (m != null) {
-                byte[] data = m.getData();
+            // if there is one chunk, just go get the message directly and we're done.
+            if (oi.getChunks() == 1) {
+                MessageInfo mi = jsm.getLastMessage(streamName, rawChunkSubject(oi.getNuid()));
+                byte[] data = mi.getData();
 
                 // track the byte count and chunks
                 // update the digest
                 // write the bytes to the output file
-                totalBytes += data.length;
-                totalChunks++;
+                totalBytes = data.length;
+                totalChunks = 1;
                 digester.update(data);
-                out.write(data);
+                target.write(data);
+            }
+            else {
+
+                JetStreamSubscription sub = js.subscribe(pubSubChunkSubject(oi.getNuid()),
+                    PushSubscribeOptions.builder().stream(streamName).ordered(true).build());
+
+                Message m = sub.nextMessage(Duration.ofSeconds(1));
+                while (m != null) {
+                    byte[] data = m.getData();
+
+                    // track the byte count and chunks
+                    // update the digest
+                    // write the bytes to the output file
+                    totalBytes += data.length;
+                    totalChunks++;
+                    digester.update(data);
+                    target.write(data);
+
+                    // read until the subject is complete
+                    m = sub.nextMessage(Duration.ofSeconds(1));
+                }
+
+                sub.unsubscribe();
+            }
+            target.flush();
+
+            if (totalBytes != oi.getSize()) { throw OsGetSizeMismatch.instance(); }
+            if (totalChunks != oi.getChunks()) { throw OsGetChunksMismatch.instance(); }
+            if (!digester.matches(oi.getDigest())) { throw OsGetDigestMismatch.instance(); }
+
+            if (fill != null) {
+                fill.commit();
+            }
+
+            return oi;
+        }
+        finally {
+            if (fill != null) {
+                fill.close();
+            }
+        }
+    }
+
+    private synchronized NatsObjectStoreDiskCache diskCache() throws IOException {
+        if (diskCache == null && oso != null && oso.getDiskCacheDirectory() != null) {
+            diskCache = NatsObjectStoreDiskCache.forDirectory(oso.getDiskCacheDirectory(), oso.getDiskCacheMaxBytes());
+        }
+        return diskCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream getInputStream(String objectName) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        ObjectInfo oi = getInfo(objectName, false);
+        if (oi == null) {
+            throw OsObjectNotFound.instance();
+        }
+
+        if (oi.isLink()) {
+            ObjectLink link = oi.getLink();
+            if (link.isBucketLink()) {
+                throw OsGetLinkToBucket.instance();
+            }
 
-                // read until the subject is complete
-                m = sub.nextMessage(Duration.ofSeconds(1));
+            // is the link in the same bucket
+            if (link.getBucket().equals(bucketName)) {
+                return getInputStream(link.getObjectName());
             }
 
-            sub.unsubscribe();
+            // different bucket
+            return js.conn.objectStore(link.getBucket(), oso).getInputStream(link.getObjectName());
+        }
+
+        int window = oso == null ? ObjectStoreOptions.DEFAULT_MAX_PENDING_CHUNKS : oso.getMaxPendingChunks();
+        return new NatsObjectStoreInputStream(this, oi, window);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] getRange(String objectName, long offset, int length) throws IOException, JetStreamApiException, InterruptedException {
+        if (offset < 0 || length < 0) {
+            throw OsGetRangeInvalid.instance();
+        }
+        NatsObjectStoreRangeReader reader = rangeReader(objectName);
+        if (offset > reader.size()) {
+            throw OsGetRangeInvalid.instance();
+        }
+        byte[] range = new byte[(int)Math.min(length, reader.size() - offset)];
+        reader.read(offset, ByteBuffer.wrap(range));
+        return range;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SeekableByteChannel getChannel(String objectName) throws IOException, JetStreamApiException {
+        return new NatsObjectStoreChannel(rangeReader(objectName));
+    }
+
+    private NatsObjectStoreRangeReader rangeReader(String objectName) throws IOException, JetStreamApiException {
+        ObjectInfo oi = getInfo(objectName, false);
+        if (oi == null) {
+            throw OsObjectNotFound.instance();
         }
-        out.flush();
 
-        if (totalBytes != oi.getSize()) { throw OsGetSizeMismatch.instance(); }
-        if (totalChunks != oi.getChunks()) { throw OsGetChunksMismatch.instance(); }
-        if (!digester.matches(oi.getDigest())) { throw OsGetDigestMismatch.instance(); }
+        if (oi.isLink()) {
+            ObjectLink link = oi.getLink();
+            if (link.isBucketLink()) {
+                throw OsGetLinkToBucket.instance();
+            }
+
+            // the linked object might be in the same or a different bucket
+            NatsObjectStore store = link.getBucket().equals(bucketName)
+                ? this
+                : (NatsObjectStore)js.conn.objectStore(link.getBucket(), oso);
+            return store.rangeReader(link.getObjectName());
+        }
 
-        return oi;
+        int window = oso == null ? ObjectStoreOptions.DEFAULT_MAX_PENDING_CHUNKS : oso.getMaxPendingChunks();
+        return new NatsObjectStoreRangeReader(this, oi, window);
     }
 
     /**
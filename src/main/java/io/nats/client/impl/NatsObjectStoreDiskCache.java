@@ -0,0 +1,287 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.NUID;
+import io.nats.client.api.ObjectInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A size bound, least recently used cache of object content on disk, one file per digest.
+ * Content is written to a temporary file while it is read from the server and only moved to
+ * its digest name once the digest was verified, so any file with a digest name is complete.
+ * That also makes it safe for processes to share the directory. The accounting is per process,
+ * a file another process added is picked up when it is first looked up.
+ */
+class NatsObjectStoreDiskCache {
+
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final int COPY_SIZE = 64 * 1024;
+    private static final Map<Path, NatsObjectStoreDiskCache> CACHES = new ConcurrentHashMap<>();
+
+    static NatsObjectStoreDiskCache forDirectory(File directory, long maxBytes) throws IOException {
+        Path dir = directory.toPath().toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+        NatsObjectStoreDiskCache cache = CACHES.get(dir);
+        if (cache == null) {
+            NatsObjectStoreDiskCache created = new NatsObjectStoreDiskCache(dir, maxBytes);
+            cache = CACHES.putIfAbsent(dir, created);
+            if (cache == null) {
+                cache = created;
+            }
+        }
+        return cache;
+    }
+
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> sizeByFileName;
+    private long totalBytes;
+
+    private NatsObjectStoreDiskCache(Path dir, long maxBytes) throws IOException {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        sizeByFileName = new LinkedHashMap<>(16, 0.75f, true);
+
+        // pick up what is already there, oldest first so the newest are the most recently used
+        List<File> files = new ArrayList<>();
+        File[] listed = dir.toFile().listFiles();
+        if (listed != null) {
+            for (File f : listed) {
+                if (f.isFile() && !f.getName().startsWith(TEMP_PREFIX)) {
+                    files.add(f);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(File::lastModified));
+        synchronized (this) {
+            for (File f : files) {
+                add(f.getName(), f.length());
+            }
+            evict();
+        }
+    }
+
+    /**
+     * Write the cached content of the object to the output stream.
+     * @return true if the content was cached and written, false if it is not cached
+     */
+    boolean read(ObjectInfo oi, OutputStream out) throws IOException {
+        String fileName = fileName(oi.getDigest());
+        Path path = dir.resolve(fileName);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size != oi.getSize()) {
+                // not what the digest says, don't trust it
+                remove(fileName);
+                return false;
+            }
+            touch(fileName, size, path);
+            if (size > 0) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                byte[] buffer = new byte[(int)Math.min(COPY_SIZE, size)];
+                while (mapped.hasRemaining()) {
+                    int len = Math.min(buffer.length, mapped.remaining());
+                    mapped.get(buffer, 0, len);
+                    out.write(buffer, 0, len);
+                }
+            }
+            out.flush();
+            return true;
+        }
+        catch (NoSuchFileException e) {
+            // not cached, or removed by another process
+            synchronized (this) {
+                Long removed = sizeByFileName.remove(fileName);
+                if (removed != null) {
+                    totalBytes -= removed;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Start filling the cache with the content of the object as it is written to the output stream.
+     * @return the fill or null if the object is not cached
+     */
+    Fill fill(ObjectInfo oi, OutputStream out) {
+        if (oi.getDigest() == null || oi.getSize() > maxBytes) {
+            return null;
+        }
+        try {
+            return new Fill(oi, out);
+        }
+        catch (IOException e) {
+            return null; // caching is best effort, the get does not fail
+        }
+    }
+
+    synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void touch(String fileName, long size, Path path) {
+        if (sizeByFileName.get(fileName) == null) {
+            add(fileName, size);
+            evict();
+        }
+        //noinspection ResultOfMethodCallIgnored
+        path.toFile().setLastModified(System.currentTimeMillis());
+    }
+
+    private synchronized void add(String fileName, long size) {
+        Long replaced = sizeByFileName.put(fileName, size);
+        if (replaced != null) {
+            totalBytes -= replaced;
+        }
+        totalBytes += size;
+    }
+
+    private synchronized void remove(String fileName) {
+        Long removed = sizeByFileName.remove(fileName);
+        if (removed != null) {
+            totalBytes -= removed;
+        }
+        delete(dir.resolve(fileName));
+    }
+
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = sizeByFileName.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            delete(dir.resolve(eldest.getKey()));
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        }
+        catch (IOException ignore) {
+            // for instance still mapped on some platforms, it will be replaced or removed later
+        }
+    }
+
+    static String fileName(String digest) {
+        try {
+            // the digest is url base64, only the = needs encoding
+            return URLEncoder.encode(digest, "UTF-8");
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e); // UTF-8 is always supported
+        }
+    }
+
+    /**
+     * Writes to the output stream and to a temporary file. The file is only added
+     * to the cache on commit, which is after the content has been verified.
+     */
+    class Fill extends OutputStream {
+        private final ObjectInfo oi;
+        private final OutputStream out;
+        private final Path temp;
+        private FileChannel channel;
+
+        private Fill(ObjectInfo oi, OutputStream out) throws IOException {
+            this.oi = oi;
+            this.out = out;
+            temp = dir.resolve(TEMP_PREFIX + NUID.nextGlobal());
+            channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (channel != null) {
+                try {
+                    ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+                    while (bb.hasRemaining()) {
+                        channel.write(bb);
+                    }
+                }
+                catch (IOException e) {
+                    abandon(); // for instance the disk is full, the get still works
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        /**
+         * The content was verified, add the file to the cache
+         */
+        void commit() {
+            if (channel == null) {
+                return;
+            }
+            String fileName = fileName(oi.getDigest());
+            try {
+                channel.close();
+                channel = null;
+                Files.move(temp, dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (IOException e) {
+                abandon();
+                return;
+            }
+            synchronized (NatsObjectStoreDiskCache.this) {
+                add(fileName, oi.getSize());
+                evict();
+            }
+        }
+
+        /**
+         * Does not close the output stream, it belongs to the caller. Without a commit the file is discarded.
+         */
+        @Override
+        public void close() {
+            abandon();
+        }
+
+        private void abandon() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                }
+                catch (IOException ignore) {
+                    // it's being deleted anyway
+                }
+                channel = null;
+            }
+            delete(temp);
+        }
+    }
+}
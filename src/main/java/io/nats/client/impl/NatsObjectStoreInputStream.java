@@ -0,0 +1,199 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.JetStreamApiException;
+import io.nats.client.JetStreamSubscription;
+import io.nats.client.Message;
+import io.nats.client.PullSubscribeOptions;
+import io.nats.client.api.AckPolicy;
+import io.nats.client.api.ConsumerConfiguration;
+import io.nats.client.api.ObjectInfo;
+import io.nats.client.support.Digester;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+
+import static io.nats.client.support.NatsJetStreamClientError.*;
+
+/**
+ * Reads an object's chunks with a pull consumer. The chunks are pulled as the stream is read,
+ * at most the read ahead window ahead of the reader, so memory is bounded no matter how slow the reader is.
+ * The digest is updated as each chunk arrives and checked after the last chunk.
+ * The server removes the consumer once it is inactive for the request timeout times the window,
+ * so a stream that is neither read to the end nor closed does not leave it behind for good.
+ */
+class NatsObjectStoreInputStream extends InputStream {
+
+    private final NatsObjectStore os;
+    private final ObjectInfo oi;
+    private final JetStreamSubscription sub;
+    private final Digester digester;
+    private final int window;
+    private final Duration timeout;
+
+    private long requested;
+    private long received;
+    private long totalBytes;
+    private byte[] chunk;
+    private int chunkPos;
+    private boolean closed;
+    private IOException failure;
+
+    NatsObjectStoreInputStream(NatsObjectStore os, ObjectInfo oi, int window) throws IOException, JetStreamApiException, NoSuchAlgorithmException {
+        this.os = os;
+        this.oi = oi;
+        this.window = window;
+        digester = new Digester();
+        timeout = os.js.jso.getRequestTimeout();
+
+        if (oi.getChunks() == 0) {
+            sub = null;
+        }
+        else {
+            PullSubscribeOptions pso = PullSubscribeOptions.builder()
+                .stream(os.getStreamName())
+                .configuration(ConsumerConfiguration.builder()
+                    .ackPolicy(AckPolicy.None)
+                    .inactiveThreshold(timeout.multipliedBy(Math.max(window, 1)))
+                    .build())
+                .build();
+            sub = os.js.subscribe(os.pubSubChunkSubject(oi.getNuid()), pso);
+            pullMore();
+        }
+    }
+
+    /**
+     * Keep up to the window of chunks requested but not yet read,
+     * asking for more once half of them have been read
+     */
+    private void pullMore() {
+        long outstanding = requested - received;
+        if (requested < oi.getChunks() && outstanding <= window / 2) {
+            int batch = (int)Math.min(window - outstanding, oi.getChunks() - requested);
+            sub.pull(batch);
+            requested += batch;
+        }
+    }
+
+    private boolean nextChunk() throws IOException {
+        if (received == oi.getChunks()) {
+            return false;
+        }
+
+        Message m;
+        try {
+            m = sub.nextMessage(timeout);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+        if (m == null) {
+            throw new IOException("Timeout or no response waiting for object chunk.");
+        }
+
+        received++;
+        chunk = m.getData();
+        chunkPos = 0;
+        totalBytes += chunk.length;
+        digester.update(chunk);
+
+        if (received == oi.getChunks()) {
+            finish();
+        }
+        else {
+            pullMore();
+        }
+        return true;
+    }
+
+    private void finish() throws IOException {
+        unsubscribe();
+        RuntimeException error = null;
+        if (totalBytes != oi.getSize()) {
+            error = OsGetSizeMismatch.instance();
+        }
+        else if (!digester.matches(oi.getDigest())) {
+            error = OsGetDigestMismatch.instance();
+        }
+        if (error != null) {
+            throw new IOException(error.getMessage(), error);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        return read(one, 0, 1) == -1 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (failure != null) {
+            // the data read so far can't be trusted, never let a later read look like the end
+            throw new IOException(failure.getMessage(), failure);
+        }
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            while (chunk == null || chunkPos == chunk.length) {
+                if (!nextChunk()) {
+                    return -1;
+                }
+            }
+        }
+        catch (IOException e) {
+            failure = e;
+            chunk = null;
+            unsubscribe();
+            throw e;
+        }
+        int count = Math.min(len, chunk.length - chunkPos);
+        System.arraycopy(chunk, chunkPos, b, off, count);
+        chunkPos += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return chunk == null ? 0 : chunk.length - chunkPos;
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            unsubscribe();
+        }
+    }
+
+    private void unsubscribe() {
+        if (sub != null && sub.isActive()) {
+            sub.unsubscribe();
+            try {
+                // an unfinished pull consumer would otherwise stay until its inactive threshold
+                os.jsm.deleteConsumer(os.getStreamName(), sub.getConsumerName());
+            }
+            catch (Exception ignore) {}
+        }
+    }
+}
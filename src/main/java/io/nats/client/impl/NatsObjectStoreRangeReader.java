@@ -0,0 +1,187 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.JetStreamApiException;
+import io.nats.client.api.DeliverPolicy;
+import io.nats.client.api.MessageInfo;
+import io.nats.client.api.ObjectInfo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static io.nats.client.support.NatsJetStreamClientError.*;
+
+/**
+ * Reads byte ranges of an object. Every chunk but the last is exactly the chunk size,
+ * so a byte offset maps to a chunk index. The chunk index maps to a stream sequence:
+ * if the chunks were stored one after the other, that is the first chunk's sequence plus
+ * the index, otherwise the sequences are listed once with a headers only consumer.
+ * The chunks of a range are fetched in parallel with direct gets, by sequence.
+ */
+class NatsObjectStoreRangeReader {
+
+    private final NatsObjectStore os;
+    private final ObjectInfo oi;
+    private final String rawChunkSubject;
+    private final int chunkSize;
+    private final int window;
+
+    private long firstSeq = -1;
+    private long[] seqs;
+
+    // the last chunk read is kept since sequential reads usually continue in it
+    private int cachedIndex = -1;
+    private byte[] cachedData;
+
+    NatsObjectStoreRangeReader(NatsObjectStore os, ObjectInfo oi, int window) {
+        this.os = os;
+        this.oi = oi;
+        this.rawChunkSubject = os.rawChunkSubject(oi.getNuid());
+        this.chunkSize = oi.getObjectMeta().getObjectMetaOptions().getChunkSize();
+        this.window = window;
+    }
+
+    ObjectInfo getObjectInfo() {
+        return oi;
+    }
+
+    long size() {
+        return oi.getSize();
+    }
+
+    /**
+     * Fill the buffer with bytes starting at the offset. The caller makes sure
+     * the object has at least buffer remaining bytes after the offset.
+     */
+    void read(long offset, ByteBuffer dst) throws IOException, JetStreamApiException, InterruptedException {
+        int length = dst.remaining();
+        if (length == 0) {
+            return;
+        }
+        locate();
+
+        int firstIndex = (int)(offset / chunkSize);
+        int lastIndex = (int)((offset + length - 1) / chunkSize);
+
+        // the chunk kept from the last read is not requested again
+        int reuseIndex = cachedIndex;
+        byte[] reuseData = cachedData;
+
+        ArrayDeque<CompletableFuture<MessageInfo>> pending = new ArrayDeque<>();
+        int nextRequest = firstIndex;
+        try {
+            for (int index = firstIndex; index <= lastIndex; index++) {
+                byte[] data;
+                if (index == reuseIndex) {
+                    data = reuseData;
+                }
+                else {
+                    while (nextRequest <= lastIndex && pending.size() < window) {
+                        if (nextRequest != reuseIndex) {
+                            pending.add(os._getBySeqAsync(seq(nextRequest)));
+                        }
+                        nextRequest++;
+                    }
+                    data = chunkData(index, pending.poll().get());
+                }
+
+                long chunkStart = (long)index * chunkSize;
+                int from = (int)Math.max(0, offset - chunkStart);
+                int count = Math.min(data.length - from, dst.remaining());
+                dst.put(data, from, count);
+
+                cachedIndex = index;
+                cachedData = data;
+            }
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof JetStreamApiException) {
+                throw (JetStreamApiException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+        finally {
+            for (CompletableFuture<MessageInfo> f : pending) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    private byte[] chunkData(int index, MessageInfo mi) {
+        if (mi == null || !rawChunkSubject.equals(mi.getSubject())) {
+            throw OsGetChunkMissing.instance();
+        }
+        byte[] data = mi.getData();
+        long expected = index == oi.getChunks() - 1 ? oi.getSize() - (long)index * chunkSize : chunkSize;
+        if (data == null || data.length != expected) {
+            throw OsGetSizeMismatch.instance();
+        }
+        return data;
+    }
+
+    private long seq(int index) {
+        return seqs == null ? firstSeq + index : seqs[index];
+    }
+
+    private void locate() throws IOException, JetStreamApiException, InterruptedException {
+        if (firstSeq != -1 || seqs != null) {
+            return;
+        }
+
+        long chunks = oi.getChunks();
+        if (chunkSize <= 0 || chunks != (oi.getSize() + chunkSize - 1) / chunkSize) {
+            throw OsGetChunksMismatch.instance(); // chunks are not a fixed size
+        }
+
+        MessageInfo last = os._getLast(rawChunkSubject);
+        if (last == null) {
+            throw OsGetChunkMissing.instance();
+        }
+        cachedIndex = (int)(chunks - 1);
+        cachedData = chunkData(cachedIndex, last);
+        if (chunks == 1) {
+            firstSeq = last.getSeq();
+            return;
+        }
+
+        MessageInfo first = os.jsm.getFirstMessage(os.getStreamName(), rawChunkSubject);
+        if (last.getSeq() - first.getSeq() + 1 == chunks) {
+            firstSeq = first.getSeq();
+            return;
+        }
+
+        // other messages are between the chunks, list where each chunk is
+        List<Long> list = new ArrayList<>();
+        os.visitSubject(os.pubSubChunkSubject(oi.getNuid()), DeliverPolicy.All, true, true,
+            m -> list.add(m.metaData().streamSequence()));
+        if (list.size() != chunks) {
+            throw OsGetChunksMismatch.instance();
+        }
+        long[] temp = new long[list.size()];
+        for (int x = 0; x < temp.length; x++) {
+            temp[x] = list.get(x);
+        }
+        seqs = temp;
+    }
+}
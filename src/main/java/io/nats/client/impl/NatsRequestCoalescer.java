@@ -0,0 +1,108 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Message;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical requests, same subject and same payload, that are in flight at the same time
+ * share one request on the wire. The first caller sends it, callers that come while it is
+ * outstanding wait for the same reply. Every caller gets its own future, so one caller
+ * cancelling does not affect the others, and its own copy of the reply, so one caller
+ * changing the data does not affect the others.
+ */
+class NatsRequestCoalescer {
+
+    private final Map<RequestKey, CompletableFuture<Message>> inFlight;
+
+    NatsRequestCoalescer() {
+        inFlight = new ConcurrentHashMap<>();
+    }
+
+    CompletableFuture<Message> request(String subject, byte[] body, Supplier<CompletableFuture<Message>> sender) {
+        RequestKey key = new RequestKey(subject, body);
+        CompletableFuture<Message> shared = inFlight.get(key);
+        if (shared == null) {
+            CompletableFuture<Message> created = new CompletableFuture<>();
+            shared = inFlight.putIfAbsent(key, created);
+            if (shared == null) {
+                shared = created;
+                try {
+                    sender.get().whenComplete((msg, t) -> {
+                        // remove before completing so a caller that sees the reply makes a new request next time
+                        inFlight.remove(key, created);
+                        if (t == null) {
+                            created.complete(msg);
+                        }
+                        else {
+                            created.completeExceptionally(t);
+                        }
+                    });
+                }
+                catch (RuntimeException e) {
+                    inFlight.remove(key, created);
+                    created.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+
+        CompletableFuture<Message> mine = new CompletableFuture<>();
+        shared.whenComplete((msg, t) -> {
+            if (t == null) {
+                mine.complete(NatsResponseCache.copyOf(msg));
+            }
+            else {
+                mine.completeExceptionally(t);
+            }
+        });
+        return mine;
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    static class RequestKey {
+        private final String subject;
+        private final byte[] body;
+        private final int hash;
+
+        RequestKey(String subject, byte[] body) {
+            this.subject = subject;
+            // the caller may reuse the array once the request is made
+            this.body = body == null ? new byte[0] : body.clone();
+            hash = 31 * subject.hashCode() + Arrays.hashCode(this.body);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RequestKey that = (RequestKey) o;
+            return hash == that.hash && subject.equals(that.subject) && Arrays.equals(body, that.body);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
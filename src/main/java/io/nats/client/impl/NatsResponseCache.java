@@ -0,0 +1,101 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Message;
+import io.nats.client.impl.NatsRequestCoalescer.RequestKey;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps replies to requests on subjects marked as idempotent, keyed by subject and payload,
+ * for the time to live configured for the subject. When there are more than the max entries,
+ * the least recently used reply is evicted.
+ * Replies are copied when they are cached and again for every hit, so a caller that changes
+ * the data of the message it got does not change what other callers get.
+ */
+class NatsResponseCache {
+
+    private final int maxEntries;
+    private final Map<String, Long> ttlNanos;
+    private final LinkedHashMap<RequestKey, CachedReply> entries;
+
+    NatsResponseCache(int maxEntries, Map<String, Duration> ttls) {
+        this.maxEntries = maxEntries;
+        ttlNanos = new LinkedHashMap<>();
+        for (Map.Entry<String, Duration> e : ttls.entrySet()) {
+            ttlNanos.put(e.getKey(), e.getValue().toNanos());
+        }
+        // access order so iteration starts at the least recently used
+        entries = new LinkedHashMap<RequestKey, CachedReply>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RequestKey, CachedReply> eldest) {
+                return size() > NatsResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The time to live for replies to requests on the subject
+     * @param subject the request subject
+     * @return the time to live in nanoseconds, or 0 if the subject is not cached
+     */
+    long ttlNanos(String subject) {
+        for (Map.Entry<String, Long> e : ttlNanos.entrySet()) {
+            if (NatsConnection.subjectMatches(e.getKey(), subject)) {
+                return e.getValue();
+            }
+        }
+        return 0;
+    }
+
+    synchronized Message get(String subject, byte[] body) {
+        RequestKey key = new RequestKey(subject, body);
+        CachedReply cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.expires >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return copyOf(cached.reply);
+    }
+
+    synchronized void put(String subject, byte[] body, Message reply, long ttlNanos) {
+        entries.put(new RequestKey(subject, body), new CachedReply(copyOf(reply), System.nanoTime() + ttlNanos));
+    }
+
+    static Message copyOf(Message m) {
+        // headers are made read only by the message, so they can be shared
+        byte[] data = m.getData();
+        return new NatsMessage(m.getSubject(), m.getReplyTo(), m.getHeaders(), data == null ? null : data.clone());
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    static class CachedReply {
+        final Message reply;
+        final long expires;
+
+        CachedReply(Message reply, long expires) {
+            this.reply = reply;
+            this.expires = expires;
+        }
+    }
+}
@@ -22,6 +22,7 @@ import io.nats.client.support.NatsUri;
 import java.net.InetAddress;
 import java.net.URISyntaxException;
 import java.net.UnknownHostException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -31,6 +32,9 @@ public class NatsServerPool implements ServerPool {
 
     private final static NatsLoggerFacade LOGGER = NatsLoggerFacade.getLogger(NatsServerPool.class);
 
+    // a server only moves ahead of another when it is at least this many percent faster
+    private final static int LATENCY_HYSTERESIS_PERCENT = 20;
+
     private final Object listLock;
     private List<ServerPoolEntry> entryList;
     private Options options;
@@ -148,23 +152,59 @@ public class NatsServerPool implements ServerPool {
             Collections.shuffle(entryList, ThreadLocalRandom.current());
         }
 
-        // 2. calculate hasSecureServer and find the index of lastConnected
+        // 2. calculate hasSecureServer
         hasSecureServer = false;
-        int lastConnectedIx = -1;
+        for (ServerPoolEntry entry : entryList) {
+            hasSecureServer |= entry.nuri.isSecure();
+        }
+
+        // 3. put the last connected server at the end of the list
+        lastConnectedToEnd();
+
+        // 4. nearest first if preferred, the last connected only moves ahead when it is clearly nearer
+        orderByLatency();
+    }
+
+    private void lastConnectedToEnd() {
         for (int ix = 0; ix < entryList.size(); ix++) {
-            NatsUri nuri = entryList.get(ix).nuri;
-            hasSecureServer |= nuri.isSecure();
-            if (nuri.equals(lastConnected)) {
-                lastConnectedIx = ix;
+            if (entryList.get(ix).nuri.equals(lastConnected)) {
+                entryList.add(entryList.remove(ix));
+                return;
             }
         }
+    }
 
-        // C. put the last connected server at the end of the list
-        if (lastConnectedIx != -1) {
-            entryList.add(entryList.remove(lastConnectedIx));
+    private void orderByLatency() {
+        if (!options.isPreferLowLatencyServers()) {
+            return;
+        }
+        // insertion sort, it is stable, so servers only change places when one is clearly faster
+        for (int x = 1; x < entryList.size(); x++) {
+            ServerPoolEntry entry = entryList.get(x);
+            int y = x;
+            while (y > 0 && isClearlyNearer(entry, entryList.get(y - 1))) {
+                y--;
+            }
+            if (y < x) {
+                entryList.add(y, entryList.remove(x));
+            }
         }
     }
 
+    private static boolean isClearlyNearer(ServerPoolEntry entry, ServerPoolEntry other) {
+        // healthy first, then measured, then the faster with hysteresis
+        if ((entry.failedAttempts == 0) != (other.failedAttempts == 0)) {
+            return entry.failedAttempts == 0;
+        }
+        if (entry.rttNanos == 0) {
+            return false;
+        }
+        if (other.rttNanos == 0) {
+            return true;
+        }
+        return entry.rttNanos * 100 < other.rttNanos * (100 - LATENCY_HYSTERESIS_PERCENT);
+    }
+
     @Override
     public NatsUri peekNextServer() {
         synchronized (listLock) {
@@ -194,19 +234,24 @@ public class NatsServerPool implements ServerPool {
             return null;
         }
 
-        // 2. else, try to resolve the hostname, adding results to list
+        // 2. else, try to resolve the hostname, from the cache if there is a ttl, adding results to list
         List<String> results = new ArrayList<>();
         try {
-            LOGGER.trace("Resolving hostname: [" + host + "]");
-            InetAddress[] addresses = InetAddress.getAllByName(host);
-            LOGGER.trace("Resolved hostname: [" + host + "] and got [" + addresses.length + "] results.");
-            for (InetAddress a : addresses) {
-                LOGGER.trace("Resolved IP: [" + a.getHostAddress() + "]");
-                results.add(a.getHostAddress());
+            LOGGER.trace(() -> "Resolving hostname: [" + host + "]");
+            Duration ttl = options.getDnsCacheTtl();
+            if (ttl == null) {
+                InetAddress[] addresses = InetAddress.getAllByName(host);
+                for (InetAddress a : addresses) {
+                    results.add(a.getHostAddress());
+                }
             }
+            else {
+                results.addAll(NatsDnsCache.SHARED.resolve(host, ttl.toNanos(), options.getDnsCacheMaxStale().toNanos()));
+            }
+            LOGGER.trace(() -> "Resolved hostname: [" + host + "] and got " + results);
         }
         catch (UnknownHostException ex) {
-            LOGGER.trace("Error resolving hostname: [" + host + "]: ", ex);
+            LOGGER.trace(() -> "Error resolving hostname: [" + host + "]: ", ex);
             // A user might have supplied a bad host, but the server shouldn't.
             // Either way, nothing much we can do.
         }
@@ -260,6 +305,25 @@ public class NatsServerPool implements ServerPool {
         }
     }
 
+    @Override
+    public void roundTripTimeMeasured(NatsUri nuri, Duration rtt) {
+        // 1. Smooth the measurements so a single slow pong does not reorder the list
+        // 2. If preferring low latency, reorder the list, the last connected only ahead of the clearly slower ones
+        long nanos = Math.max(1, rtt.toNanos());
+        synchronized (listLock) {
+            for (ServerPoolEntry entry : entryList) {
+                if (entry.nuri.equals(nuri)) {
+                    entry.rttNanos = entry.rttNanos == 0 ? nanos : (entry.rttNanos * 3 + nanos) / 4;
+                    if (options.isPreferLowLatencyServers()) {
+                        lastConnectedToEnd();
+                        orderByLatency();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
     @Override
     public List<String> getServerList() {
         synchronized (listLock) {
@@ -30,6 +30,8 @@ class NatsStatistics implements Statistics, StatisticsCollector {
 
     private AtomicLong flushCounter;
     private AtomicLong outstandingRequests;
+    private AtomicLong responseCacheHits;
+    private AtomicLong responseCacheMisses;
     private AtomicLong requestsSent;
     private AtomicLong repliesReceived;
     private AtomicLong duplicateRepliesReceived;
@@ -56,6 +58,8 @@ class NatsStatistics implements Statistics, StatisticsCollector {
 
         this.flushCounter = new AtomicLong();
         this.outstandingRequests = new AtomicLong();
+        this.responseCacheHits = new AtomicLong();
+        this.responseCacheMisses = new AtomicLong();
         this.requestsSent = new AtomicLong();
         this.repliesReceived = new AtomicLong();
         this.duplicateRepliesReceived = new AtomicLong();
@@ -162,6 +166,16 @@ class NatsStatistics implements Statistics, StatisticsCollector {
         this.outstandingRequests.decrementAndGet();
     }
 
+    @Override
+    public void incrementResponseCacheHits() {
+        this.responseCacheHits.incrementAndGet();
+    }
+
+    @Override
+    public void incrementResponseCacheMisses() {
+        this.responseCacheMisses.incrementAndGet();
+    }
+
     @Override
     public void registerRead(long bytes) {
         if (!trackAdvanced) {
@@ -255,6 +269,16 @@ class NatsStatistics implements Statistics, StatisticsCollector {
         return outstandingRequests.get();
     }
 
+    @Override
+    public long getResponseCacheHits() {
+        return responseCacheHits.get();
+    }
+
+    @Override
+    public long getResponseCacheMisses() {
+        return responseCacheMisses.get();
+    }
+
     @Override
     public long getRepliesReceived() { return repliesReceived.get(); }
 
@@ -295,6 +319,8 @@ class NatsStatistics implements Statistics, StatisticsCollector {
         appendNumberStat(builder, "Handled Exceptions:              ", this.exceptionCount.get());
         appendNumberStat(builder, "Successful Flush Calls:          ", this.flushCounter.get());
         appendNumberStat(builder, "Outstanding Request Futures:     ", this.outstandingRequests.get());
+        appendNumberStat(builder, "Response Cache Hits:             ", this.responseCacheHits.get());
+        appendNumberStat(builder, "Response Cache Misses:           ", this.responseCacheMisses.get());
         appendNumberStat(builder, "Dropped Messages:                ", this.droppedCount.get());
         builder.append("\n");
         builder.append("### Reader ###\n");
@@ -162,6 +162,7 @@ class NatsSubscription extends NatsConsumer implements Subscription {
 
         if (msg != null) {
             this.incrementDeliveredCount();
+            decodePayload(msg, connection.getOptions().getPayloadCodec());
         }
 
         if (this.reachedUnsubLimit()) {
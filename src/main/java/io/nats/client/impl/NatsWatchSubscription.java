@@ -16,6 +16,7 @@ package io.nats.client.impl;
 import io.nats.client.*;
 import io.nats.client.api.AckPolicy;
 import io.nats.client.api.ConsumerConfiguration;
+import io.nats.client.api.ConsumerInfo;
 import io.nats.client.api.DeliverPolicy;
 import io.nats.client.api.Watcher;
 
@@ -54,7 +55,8 @@ public class NatsWatchSubscription<T> implements AutoCloseable {
         dispatcher = (NatsDispatcher) ((NatsJetStream) js).conn.createDispatcher();
         sub = js.subscribe(subscribeSubject, dispatcher, handler, false, pso);
         if (!handler.endOfDataSent) {
-            long pending = sub.getConsumerInfo().getCalculatedPending();
+            ConsumerInfo ci = ((NatsJetStreamSubscription) sub).getCreatedConsumerInfo();
+            long pending = (ci == null ? sub.getConsumerInfo() : ci).getCalculatedPending();
             if (pending == 0) {
                 handler.sendEndOfData();
             }
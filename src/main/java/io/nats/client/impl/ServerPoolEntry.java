@@ -20,6 +20,7 @@ public class ServerPoolEntry {
     public boolean isGossiped;
     public int failedAttempts;
     public long lastAttempt;
+    public long rttNanos; // smoothed, 0 until measured
 
     public ServerPoolEntry(NatsUri nuri, boolean isGossiped) {
         this.nuri = nuri;
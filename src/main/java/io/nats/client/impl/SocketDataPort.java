@@ -42,6 +42,7 @@ public class SocketDataPort implements DataPort {
     protected int port;
     protected Socket socket;
     protected boolean isSecure = false;
+    protected boolean connecting = false;
 
     protected InputStream in;
     protected OutputStream out;
@@ -64,6 +65,7 @@ public class SocketDataPort implements DataPort {
         host = nuri.getHost();
         port = nuri.getPort();
 
+        connecting = true;
         try {
             if (options.getProxy() != null) {
                 socket = new Socket(options.getProxy());
@@ -98,11 +100,16 @@ public class SocketDataPort implements DataPort {
             }
             throw new IOException(e);
         }
+        finally {
+            connecting = false;
+        }
     }
 
     /**
      * Upgrade the port to SSL. If it is already secured, this is a no-op.
      * If the data port type doesn't support SSL it should throw an exception.
+     * A handshake that does not complete while the port is connecting is thrown,
+     * after that it is reported to the connection.
      */
     public void upgradeToSecure() throws IOException {
         Options options = connection.getOptions();
@@ -125,6 +132,11 @@ public class SocketDataPort implements DataPort {
         try {
             waitForHandshake.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
         } catch (Exception ex) {
+            if (connecting) {
+                // may be one of several connect attempts, not the one the connection goes on with
+                try { sslSocket.close(); } catch (Exception ignore) {}
+                throw new IOException("TLS handshake did not complete", ex);
+            }
             connection.handleCommunicationIssue(ex);
             return;
         }
@@ -112,6 +112,7 @@ public interface ApiConstants {
     String MAX_MSGS          = "max_msgs";
     String MAX_MSGS_PER_SUB  = "max_msgs_per_subject";
     String MAX_PAYLOAD       = "max_payload";
+    String MAX_PROCESSING_TIME = "max_processing_time";
     String MAX_STORAGE       = "max_storage";
     String MAX_STREAMS       = "max_streams";
     String MAX_WAITING       = "max_waiting"; // this is correct! the meaning name is different than the field name
@@ -134,10 +135,12 @@ public interface ApiConstants {
     String NUM_ACK_PENDING   = "num_ack_pending";
     String NUM_DELETED       = "num_deleted";
     String NUM_ERRORS        = "num_errors";
+    String NUM_EXPIRED       = "num_expired";
     String NUM_PENDING       = "num_pending";
     String NUM_REDELIVERED   = "num_redelivered";
     String NUM_REPLICAS      = "num_replicas";
     String NUM_REQUESTS      = "num_requests";
+    String NUM_SHED          = "num_shed";
     String NUM_SUBJECTS      = "num_subjects";
     String NUM_WAITING       = "num_waiting";
     String OFFLINE           = "offline";
@@ -148,6 +151,9 @@ public interface ApiConstants {
     String PLACEMENT         = "placement";
     String PORT              = "port";
     String PROCESSING_TIME   = "processing_time";
+    String PROCESSING_TIME_P50 = "processing_time_p50";
+    String PROCESSING_TIME_P90 = "processing_time_p90";
+    String PROCESSING_TIME_P99 = "processing_time_p99";
     String PROTO             = "proto";
     String PURGED            = "purged";
     String PUSH_BOUND        = "push_bound";
@@ -158,6 +164,7 @@ public interface ApiConstants {
     String REPLICAS          = "replicas";
     String REPUBLISH         = "republish";
     String REQUEST           = "request";
+    String REQUESTS_PER_SECOND = "requests_per_second";
     String RESPONSE          = "response";
     String RETENTION         = "retention";
     String SAMPLE_FREQ       = "sample_freq";
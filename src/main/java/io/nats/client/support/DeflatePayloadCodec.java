@@ -0,0 +1,153 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.support;
+
+import io.nats.client.PayloadCodec;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A payload codec that compresses with the JDK {@link Deflater} (zlib format).
+ * Deflaters, inflaters and work buffers are kept per thread and reused,
+ * so a payload only allocates the array that is returned.
+ * Decoding stops with an IOException once the decoded payload is larger than the maximum decoded size,
+ * so a small payload crafted to inflate enormously cannot exhaust memory.
+ */
+public class DeflatePayloadCodec implements PayloadCodec {
+    public static final String NAME = "deflate";
+
+    /**
+     * The default maximum decoded size, 64MB, the largest max payload a server can be configured with.
+     */
+    public static final int DEFAULT_MAX_DECODED_SIZE = 64 * 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_KEPT_BUFFER_SIZE = 1024 * 1024;
+
+    private final int maxDecodedSize;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters;
+    private final ThreadLocal<byte[][]> buffers;
+
+    /**
+     * Construct a codec that uses the default compression level
+     */
+    public DeflatePayloadCodec() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Construct a codec
+     * @param level the compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public DeflatePayloadCodec(int level) {
+        this(level, DEFAULT_MAX_DECODED_SIZE);
+    }
+
+    /**
+     * Construct a codec
+     * @param level the compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @param maxDecodedSize the largest payload decode will produce, from 1 to Integer.MAX_VALUE - 1
+     */
+    public DeflatePayloadCodec(int level, int maxDecodedSize) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        if (maxDecodedSize < 1 || maxDecodedSize == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid maximum decoded size: " + maxDecodedSize);
+        }
+        this.maxDecodedSize = maxDecodedSize;
+        deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+        inflaters = ThreadLocal.withInitial(Inflater::new);
+        buffers = ThreadLocal.withInitial(() -> new byte[][]{new byte[INITIAL_BUFFER_SIZE]});
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Get the largest payload decode will produce
+     * @return the maximum decoded size
+     */
+    public int getMaxDecodedSize() {
+        return maxDecodedSize;
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        Deflater deflater = deflaters.get();
+        byte[][] holder = buffers.get();
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            int len = 0;
+            while (!deflater.finished()) {
+                if (len == holder[0].length) {
+                    holder[0] = Arrays.copyOf(holder[0], holder[0].length * 2);
+                }
+                len += deflater.deflate(holder[0], len, holder[0].length - len);
+            }
+            return Arrays.copyOf(holder[0], len);
+        }
+        finally {
+            deflater.reset();
+            release(holder);
+        }
+    }
+
+    @Override
+    public byte[] decode(byte[] data) throws IOException {
+        Inflater inflater = inflaters.get();
+        byte[][] holder = buffers.get();
+        try {
+            inflater.setInput(data);
+            int len = 0;
+            while (!inflater.finished()) {
+                if (len == holder[0].length) {
+                    // room for one byte past the maximum, enough to know the payload is too large
+                    holder[0] = Arrays.copyOf(holder[0], (int)Math.min(holder[0].length * 2L, maxDecodedSize + 1L));
+                }
+                int n = inflater.inflate(holder[0], len, holder[0].length - len);
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Incomplete deflate payload.");
+                }
+                len += n;
+                if (len > maxDecodedSize) {
+                    throw new IOException("Decoded payload is larger than the maximum of " + maxDecodedSize + " bytes.");
+                }
+            }
+            return Arrays.copyOf(holder[0], len);
+        }
+        catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        finally {
+            inflater.reset();
+            release(holder);
+        }
+    }
+
+    private static void release(byte[][] holder) {
+        // don't keep a buffer grown for one very large payload
+        if (holder[0].length > MAX_KEPT_BUFFER_SIZE) {
+            holder[0] = new byte[INITIAL_BUFFER_SIZE];
+        }
+    }
+}
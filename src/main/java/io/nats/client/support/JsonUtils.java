@@ -233,6 +233,20 @@ public abstract class JsonUtils {
         }
     }
 
+    /**
+     * Appends a json field to a string builder.
+     * @param sb string builder
+     * @param fname fieldname
+     * @param value field value
+     */
+    public static void addFieldWhenGtZero(StringBuilder sb, String fname, Double value) {
+        if (value != null && value > 0) {
+            sb.append(Q);
+            jsonEncode(sb, fname);
+            sb.append(QCOLON).append(value).append(COMMA);
+        }
+    }
+
     /**
      * Appends a json field to a string builder.
      * @param sb string builder
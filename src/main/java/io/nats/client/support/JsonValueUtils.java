@@ -111,6 +111,11 @@ public abstract class JsonValueUtils {
         });
     }
 
+    public static double readDouble(JsonValue jsonValue, String key, double dflt) {
+        return read(jsonValue, key,
+            v -> v == null || v.number == null ? dflt : v.number.doubleValue());
+    }
+
     public static boolean readBoolean(JsonValue jsonValue, String key) {
         return readBoolean(jsonValue, key, false);
     }
@@ -66,6 +66,8 @@ public class NatsJetStreamClientError {
     public static final NatsJetStreamClientError OsGetSizeMismatch = new NatsJetStreamClientError(OS, 90207, "Total size does not match meta data.");
     public static final NatsJetStreamClientError OsGetLinkToBucket = new NatsJetStreamClientError(OS, 90208, "Cannot get object, it is a link to a bucket.");
     public static final NatsJetStreamClientError OsLinkNotAllowOnPut = new NatsJetStreamClientError(OS, 90209, "Link not allowed in metadata when putting an object.");
+    public static final NatsJetStreamClientError OsGetRangeInvalid = new NatsJetStreamClientError(OS, 90210, "Range offset and length must not be negative and the offset must be within the object.");
+    public static final NatsJetStreamClientError OsGetChunkMissing = new NatsJetStreamClientError(OS, 90211, "A chunk of the object was not found.", KIND_ILLEGAL_STATE);
 
     public static final NatsJetStreamClientError JsConsumerCreate290NotAvailable = new NatsJetStreamClientError(CON, 90301, "Name field not valid when v2.9.0 consumer create api is not available.");
     public static final NatsJetStreamClientError JsConsumerNameDurableMismatch = new NatsJetStreamClientError(CON, 90302, "Name must match durable if both are supplied.");
@@ -0,0 +1,74 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.support;
+
+import io.nats.client.Message;
+import io.nats.client.impl.Headers;
+
+import java.time.Duration;
+
+public abstract class NatsRequestUtil {
+
+    private NatsRequestUtil() {} /* ensures cannot be constructed */
+
+    /**
+     * The header with the time a request times out at the caller, in milliseconds since the epoch
+     */
+    public static final String REQUEST_DEADLINE_HDR = "Nats-Request-Deadline";
+
+    /**
+     * Copy the headers adding the deadline for a request made now with the timeout
+     * @param headers the request headers, may be null
+     * @param timeout the request timeout
+     * @return the copy
+     */
+    public static Headers withDeadline(Headers headers, Duration timeout) {
+        Headers h = new Headers(headers);
+        h.put(REQUEST_DEADLINE_HDR, Long.toString(System.currentTimeMillis() + timeout.toMillis()));
+        return h;
+    }
+
+    /**
+     * Get the deadline of a request
+     * @param msg the request message
+     * @return the deadline in milliseconds since the epoch, or 0 if the request does not have a valid deadline
+     */
+    public static long getDeadline(Message msg) {
+        if (msg.hasHeaders()) {
+            String value = msg.getHeaders().getFirst(REQUEST_DEADLINE_HDR);
+            if (value != null) {
+                try {
+                    return Long.parseLong(value);
+                }
+                catch (NumberFormatException ignore) {
+                    // not from this client, treat it as no deadline
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Whether the message is a request whose deadline has passed
+     * @param msg the message
+     * @return true if the deadline has passed
+     */
+    public static boolean isExpired(Message msg) {
+        if (msg.getReplyTo() == null) {
+            return false;
+        }
+        long deadline = getDeadline(msg);
+        return deadline > 0 && deadline < System.currentTimeMillis();
+    }
+}
@@ -28,10 +28,15 @@ import static io.nats.service.Service.*;
 /**
  * Discovery is a utility class to help discover services by executing Ping, Info and Stats requests
  * You are required to provide a connection.
- * Optionally you can set 'maxTimeMillis' and 'maxResults'. When making a discovery request,
+ * Optionally you can set 'maxTimeMillis', 'maxResults' and 'stallMillis'. When making a discovery request,
  * the discovery will wait until the first one of those thresholds is reached before returning the results.
  * <p>'maxTimeMillis' defaults to {@value DEFAULT_DISCOVERY_MAX_TIME_MILLIS}</p>
  * <p>'maxResults' defaults tp {@value DEFAULT_DISCOVERY_MAX_RESULTS}</p>
+ * <p>'stallMillis' is the time to wait for another response once responses have started arriving.
+ * When it is set, a discovery of many services returns shortly after the last service answered instead of
+ * at 'maxTimeMillis'. It defaults to 0, no stall detection.</p>
+ * <p>The ping, info and stats methods that take a handler give each response to the handler as it arrives
+ * instead of collecting them.</p>
  */
 public class Discovery {
     public static final long DEFAULT_DISCOVERY_MAX_TIME_MILLIS = 5000;
@@ -40,6 +45,7 @@ public class Discovery {
     private final Connection conn;
     private final long maxTimeMillis;
     private final int maxResults;
+    private final long stallMillis;
 
     private Supplier<String> inboxSupplier;
 
@@ -58,9 +64,21 @@ public class Discovery {
      * @param maxResults the maximum number of results to wait for or any number less than 1 to use the default
      */
     public Discovery(Connection conn, long maxTimeMillis, int maxResults) {
+        this(conn, maxTimeMillis, maxResults, 0);
+    }
+
+    /**
+     * Construct a Discovery instance
+     * @param conn the NATS Connection
+     * @param maxTimeMillis the maximum time to wait for discovery requests to complete or any number less than 1 to use the default
+     * @param maxResults the maximum number of results to wait for or any number less than 1 to use the default
+     * @param stallMillis the maximum time to wait for the next response after the first one or any number less than 1 to not stop when responses stall
+     */
+    public Discovery(Connection conn, long maxTimeMillis, int maxResults, long stallMillis) {
         this.conn = conn;
         this.maxTimeMillis = maxTimeMillis < 1 ? DEFAULT_DISCOVERY_MAX_TIME_MILLIS : maxTimeMillis;
         this.maxResults = maxResults < 1 ? DEFAULT_DISCOVERY_MAX_RESULTS : maxResults;
+        this.stallMillis = Math.max(0, stallMillis);
         setInboxSupplier(null);
     }
 
@@ -106,6 +124,17 @@ public class Discovery {
         return jsonBytes == null ? null : new PingResponse(jsonBytes);
     }
 
+    /**
+     * Make a ping request only to services having the matching service name,
+     * giving each {@link PingResponse} to the handler as it arrives
+     * @param serviceName the service name or null for all services
+     * @param handler the handler, called on the calling thread
+     * @return the number of responses
+     */
+    public int ping(String serviceName, Consumer<PingResponse> handler) {
+        return discoverMany(SRV_PING, serviceName, jsonBytes -> handler.accept(new PingResponse(jsonBytes)));
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // info
     // ----------------------------------------------------------------------------------------------------
@@ -140,6 +169,17 @@ public class Discovery {
         return jsonBytes == null ? null : new InfoResponse(jsonBytes);
     }
 
+    /**
+     * Make an info request only to services having the matching service name,
+     * giving each {@link InfoResponse} to the handler as it arrives
+     * @param serviceName the service name or null for all services
+     * @param handler the handler, called on the calling thread
+     * @return the number of responses
+     */
+    public int info(String serviceName, Consumer<InfoResponse> handler) {
+        return discoverMany(SRV_INFO, serviceName, jsonBytes -> handler.accept(new InfoResponse(jsonBytes)));
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // stats
     // ----------------------------------------------------------------------------------------------------
@@ -174,6 +214,17 @@ public class Discovery {
         return jsonBytes == null ? null : new StatsResponse(jsonBytes);
     }
 
+    /**
+     * Make a stats request only to services having the matching service name,
+     * giving each {@link StatsResponse} to the handler as it arrives
+     * @param serviceName the service name or null for all services
+     * @param handler the handler, called on the calling thread
+     * @return the number of responses
+     */
+    public int stats(String serviceName, Consumer<StatsResponse> handler) {
+        return discoverMany(SRV_STATS, serviceName, jsonBytes -> handler.accept(new StatsResponse(jsonBytes)));
+    }
+
     // ----------------------------------------------------------------------------------------------------
     // workers
     // ----------------------------------------------------------------------------------------------------
@@ -191,7 +242,8 @@ public class Discovery {
         return null;
     }
 
-    private void discoverMany(String action, String serviceName, Consumer<byte[]> dataConsumer) {
+    private int discoverMany(String action, String serviceName, Consumer<byte[]> dataConsumer) {
+        int count = 0;
         Subscription sub = null;
         try {
             String replyTo = inboxSupplier.get();
@@ -200,16 +252,17 @@ public class Discovery {
             String subject = toDiscoverySubject(action, serviceName, null);
             conn.publish(subject, replyTo, null);
 
-            int resultsLeft = maxResults;
             long start = System.currentTimeMillis();
             long timeLeft = maxTimeMillis;
-            while (resultsLeft > 0 && timeLeft > 0) {
-                Message msg = sub.nextMessage(timeLeft);
+            while (count < maxResults && timeLeft > 0) {
+                // once responses are coming in, a quiet stall interval means they are probably all in
+                long wait = count == 0 || stallMillis == 0 ? timeLeft : Math.min(timeLeft, stallMillis);
+                Message msg = sub.nextMessage(wait);
                 if (msg == null) {
-                    return;
+                    return count;
                 }
                 dataConsumer.accept(msg.getData());
-                resultsLeft--;
+                count++;
                 // try again while we have time
                 timeLeft = maxTimeMillis - (System.currentTimeMillis() - start);
             }
@@ -224,5 +277,6 @@ public class Discovery {
             }
             catch (Exception ignore) {}
         }
+        return count;
     }
 }
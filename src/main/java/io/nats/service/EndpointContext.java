@@ -3,10 +3,16 @@ package io.nats.service;
 import io.nats.client.Connection;
 import io.nats.client.Dispatcher;
 import io.nats.client.Message;
+import io.nats.client.MessageHandler;
 import io.nats.client.Subscription;
 import io.nats.client.support.DateTimeUtils;
+import io.nats.client.support.NatsRequestUtil;
 
 import java.time.ZonedDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -23,13 +29,25 @@ class EndpointContext {
     private final boolean internalDispatcher;
     private final Dispatcher dispatcher;
 
+    // when there is an executor the dispatcher thread only hands off, the semaphore caps the handlers running
+    private final ExecutorService executor;
+    private final int permits;
+    private final Semaphore inFlight;
+
+    // admission control, over either limit a request is answered with a 503 and not handled
+    private final long maxPending;
+    private final int maxInFlight;
+
     private Subscription sub;
 
     private ZonedDateTime started;
-    private String lastError;
+    private volatile String lastError;
     private final AtomicLong numRequests;
     private final AtomicLong numErrors;
+    private final AtomicLong numShed;
+    private final AtomicLong numExpired;
     private final AtomicLong processingTime;
+    private final LatencyRecorder latency;
 
     EndpointContext(Connection conn, Dispatcher internalDispatcher, boolean internalEndpoint, ServiceEndpoint se) {
         this.conn = conn;
@@ -47,20 +65,116 @@ class EndpointContext {
             this.internalDispatcher = false;
         }
 
+        if (internalEndpoint || (se.getExecutor() == null && se.getConcurrency() < 2)) {
+            executor = null;
+            permits = 0;
+            inFlight = null;
+        }
+        else {
+            executor = se.getExecutor() == null ? conn.getOptions().getExecutor() : se.getExecutor();
+            permits = se.getConcurrency() < 1 ? Integer.MAX_VALUE : se.getConcurrency();
+            inFlight = new Semaphore(permits);
+        }
+        maxPending = internalEndpoint ? 0 : se.getMaxPending();
+        maxInFlight = inFlight == null ? 0 : se.getMaxInFlight();
+
         numRequests = new AtomicLong();
         numErrors = new AtomicLong();
+        numShed = new AtomicLong();
+        numExpired = new AtomicLong();
         processingTime = new AtomicLong();
+        latency = new LatencyRecorder();
         started = DateTimeUtils.gmtNow();
     }
 
     void start() {
+        MessageHandler mh;
+        if (executor != null) {
+            mh = this::submit;
+        }
+        else if (maxPending > 0) {
+            mh = msg -> {
+                if (admit(msg)) {
+                    onMessage(msg);
+                }
+            };
+        }
+        else {
+            mh = this::onMessage;
+        }
         sub = qGroup == null
-            ? dispatcher.subscribe(se.getSubject(), this::onMessage)
-            : dispatcher.subscribe(se.getSubject(), qGroup, this::onMessage);
+            ? dispatcher.subscribe(se.getSubject(), mh)
+            : dispatcher.subscribe(se.getSubject(), qGroup, mh);
         started = DateTimeUtils.gmtNow();
     }
 
+    /**
+     * Check the limits, a request over a limit is answered with a 503 and counted as shed
+     * @return true if the request should be handled
+     */
+    boolean admit(Message msg) {
+        if ((maxPending > 0 && dispatcher.getPendingMessageCount() >= maxPending)
+            || (maxInFlight > 0 && permits - inFlight.availablePermits() >= maxInFlight)) {
+            numShed.incrementAndGet();
+            try {
+                new ServiceMessage(msg).respondStandardError(conn, "Service Unavailable", 503);
+            } catch (RuntimeException ignore) {}
+            return false;
+        }
+        return true;
+    }
+
+    void submit(Message msg) throws InterruptedException {
+        if (!admit(msg)) {
+            return;
+        }
+        inFlight.acquire(); // at the max, wait here so the rest of the requests stay pending in the dispatcher
+        try {
+            executor.execute(() -> {
+                try {
+                    onMessage(msg);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                finally {
+                    inFlight.release();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            // the executor was shut down, still answer the request
+            try {
+                onMessage(msg);
+            }
+            finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    /**
+     * Wait for the requests already handed to the executor to be handled
+     * @param timeoutMillis the maximum time to wait
+     */
+    void awaitInFlight(long timeoutMillis) {
+        if (inFlight != null) {
+            try {
+                if (inFlight.tryAcquire(permits, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    inFlight.release(permits);
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     public void onMessage(Message msg) throws InterruptedException {
+        if (recordStats && NatsRequestUtil.isExpired(msg)) {
+            numExpired.incrementAndGet(); // no one is waiting for the response
+            return;
+        }
         long start = System.nanoTime();
         ServiceMessage smsg = new ServiceMessage(msg);
         try {
@@ -80,7 +194,9 @@ class EndpointContext {
         }
         finally {
             if (recordStats) {
-                processingTime.addAndGet(System.nanoTime() - start);
+                long elapsed = System.nanoTime() - start;
+                processingTime.addAndGet(elapsed);
+                latency.record(elapsed);
             }
         }
     }
@@ -92,7 +208,14 @@ class EndpointContext {
             se.getQueueGroup(),
             numRequests.get(),
             numErrors.get(),
+            numShed.get(),
+            numExpired.get(),
             processingTime.get(),
+            latency.getPercentile(50),
+            latency.getPercentile(90),
+            latency.getPercentile(99),
+            latency.getMax(),
+            latency.getRequestsPerSecond(),
             lastError,
             se.getStatsDataSupplier() == null ? null : se.getStatsDataSupplier().get(),
             started);
@@ -101,7 +224,10 @@ class EndpointContext {
     void reset() {
         numRequests.set(0);
         numErrors.set(0);
+        numShed.set(0);
+        numExpired.set(0);
         processingTime.set(0);
+        latency.reset();
         lastError = null;
         started = DateTimeUtils.gmtNow();
     }
@@ -61,6 +61,11 @@ import static io.nats.client.support.JsonValueUtils.*;
  *     "num_requests": 5,
  *     "processing_time": 1931600,
  *     "average_processing_time": 386320,
+ *     "processing_time_p50": 356352,
+ *     "processing_time_p90": 466944,
+ *     "processing_time_p99": 532480,
+ *     "max_processing_time": 538900,
+ *     "requests_per_second": 0.5,
  *     "data": {
  *          "idata": 2,
  *          "sdata": "s-996409223"
@@ -75,8 +80,15 @@ public class EndpointStats implements JsonSerializable {
     private final String queueGroup;
     private final long numRequests;
     private final long numErrors;
+    private final long numShed;
+    private final long numExpired;
     private final long processingTime;
     private final long averageProcessingTime;
+    private final long processingTimeP50;
+    private final long processingTimeP90;
+    private final long processingTimeP99;
+    private final long maxProcessingTime;
+    private final double requestsPerSecond;
     private final String lastError;
     private final JsonValue data;
     private final ZonedDateTime started;
@@ -86,13 +98,26 @@ public class EndpointStats implements JsonSerializable {
     }
 
     EndpointStats(String name, String subject, String queueGroup, long numRequests, long numErrors, long processingTime, String lastError, JsonValue data, ZonedDateTime started) {
+        this(name, subject, queueGroup, numRequests, numErrors, 0, 0, processingTime, 0, 0, 0, 0, 0, lastError, data, started);
+    }
+
+    EndpointStats(String name, String subject, String queueGroup, long numRequests, long numErrors, long numShed, long numExpired, long processingTime,
+                  long processingTimeP50, long processingTimeP90, long processingTimeP99, long maxProcessingTime, double requestsPerSecond,
+                  String lastError, JsonValue data, ZonedDateTime started) {
         this.name = name;
         this.subject = subject;
         this.queueGroup = queueGroup;
         this.numRequests = numRequests;
         this.numErrors = numErrors;
+        this.numShed = numShed;
+        this.numExpired = numExpired;
         this.processingTime = processingTime;
         this.averageProcessingTime = numRequests < 1 ? 0 : processingTime / numRequests;
+        this.processingTimeP50 = processingTimeP50;
+        this.processingTimeP90 = processingTimeP90;
+        this.processingTimeP99 = processingTimeP99;
+        this.maxProcessingTime = maxProcessingTime;
+        this.requestsPerSecond = requestsPerSecond;
         this.lastError = lastError;
         this.data = data;
         this.started = started;
@@ -104,8 +129,15 @@ public class EndpointStats implements JsonSerializable {
         queueGroup = readString(vEndpointStats, QUEUE_GROUP);
         numRequests = readLong(vEndpointStats, NUM_REQUESTS, 0);
         numErrors = readLong(vEndpointStats, NUM_ERRORS, 0);
+        numShed = readLong(vEndpointStats, NUM_SHED, 0);
+        numExpired = readLong(vEndpointStats, NUM_EXPIRED, 0);
         processingTime = readLong(vEndpointStats, PROCESSING_TIME, 0);
         averageProcessingTime = readLong(vEndpointStats, AVERAGE_PROCESSING_TIME, 0);
+        processingTimeP50 = readLong(vEndpointStats, PROCESSING_TIME_P50, 0);
+        processingTimeP90 = readLong(vEndpointStats, PROCESSING_TIME_P90, 0);
+        processingTimeP99 = readLong(vEndpointStats, PROCESSING_TIME_P99, 0);
+        maxProcessingTime = readLong(vEndpointStats, MAX_PROCESSING_TIME, 0);
+        requestsPerSecond = readDouble(vEndpointStats, REQUESTS_PER_SECOND, 0);
         lastError = readString(vEndpointStats, LAST_ERROR);
         data = readValue(vEndpointStats, DATA);
         started = readDate(vEndpointStats, STARTED);
@@ -119,8 +151,15 @@ public class EndpointStats implements JsonSerializable {
         JsonUtils.addField(sb, QUEUE_GROUP, queueGroup);
         JsonUtils.addFieldWhenGtZero(sb, NUM_REQUESTS, numRequests);
         JsonUtils.addFieldWhenGtZero(sb, NUM_ERRORS, numErrors);
+        JsonUtils.addFieldWhenGtZero(sb, NUM_SHED, numShed);
+        JsonUtils.addFieldWhenGtZero(sb, NUM_EXPIRED, numExpired);
         JsonUtils.addFieldWhenGtZero(sb, PROCESSING_TIME, processingTime);
         JsonUtils.addFieldWhenGtZero(sb, AVERAGE_PROCESSING_TIME, averageProcessingTime);
+        JsonUtils.addFieldWhenGtZero(sb, PROCESSING_TIME_P50, processingTimeP50);
+        JsonUtils.addFieldWhenGtZero(sb, PROCESSING_TIME_P90, processingTimeP90);
+        JsonUtils.addFieldWhenGtZero(sb, PROCESSING_TIME_P99, processingTimeP99);
+        JsonUtils.addFieldWhenGtZero(sb, MAX_PROCESSING_TIME, maxProcessingTime);
+        JsonUtils.addFieldWhenGtZero(sb, REQUESTS_PER_SECOND, requestsPerSecond);
         JsonUtils.addField(sb, LAST_ERROR, lastError);
         JsonUtils.addField(sb, DATA, data);
         JsonUtils.addField(sb, STARTED, started);
@@ -167,6 +206,24 @@ public class EndpointStats implements JsonSerializable {
         return numErrors;
     }
 
+    /**
+     * Number of requests the endpoint rejected with a 503 because it was overloaded.
+     * Shed requests are not included in the number of requests.
+     * @return the number of shed requests
+     */
+    public long getNumShed() {
+        return numShed;
+    }
+
+    /**
+     * Number of requests the endpoint discarded without handling because the caller's deadline had passed.
+     * Expired requests are not included in the number of requests.
+     * @return the number of expired requests
+     */
+    public long getNumExpired() {
+        return numExpired;
+    }
+
     /**
      * Total processing time for the endpoint
      * @return the total processing time
@@ -183,6 +240,46 @@ public class EndpointStats implements JsonSerializable {
         return averageProcessingTime;
     }
 
+    /**
+     * The median processing time, half of the requests took less
+     * @return the 50th percentile processing time
+     */
+    public long getProcessingTimeP50() {
+        return processingTimeP50;
+    }
+
+    /**
+     * The processing time 90 percent of the requests took less than
+     * @return the 90th percentile processing time
+     */
+    public long getProcessingTimeP90() {
+        return processingTimeP90;
+    }
+
+    /**
+     * The processing time 99 percent of the requests took less than
+     * @return the 99th percentile processing time
+     */
+    public long getProcessingTimeP99() {
+        return processingTimeP99;
+    }
+
+    /**
+     * The longest processing time of a request
+     * @return the max processing time
+     */
+    public long getMaxProcessingTime() {
+        return maxProcessingTime;
+    }
+
+    /**
+     * The average number of requests per second over the last 10 seconds
+     * @return the requests per second
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
     /**
      * If set, the last error triggered by the endpoint
      * @return the last error or null
@@ -230,8 +327,15 @@ public class EndpointStats implements JsonSerializable {
 
         if (numRequests != that.numRequests) return false;
         if (numErrors != that.numErrors) return false;
+        if (numShed != that.numShed) return false;
+        if (numExpired != that.numExpired) return false;
         if (processingTime != that.processingTime) return false;
         if (averageProcessingTime != that.averageProcessingTime) return false;
+        if (processingTimeP50 != that.processingTimeP50) return false;
+        if (processingTimeP90 != that.processingTimeP90) return false;
+        if (processingTimeP99 != that.processingTimeP99) return false;
+        if (maxProcessingTime != that.maxProcessingTime) return false;
+        if (Double.compare(requestsPerSecond, that.requestsPerSecond) != 0) return false;
         if (!Objects.equals(name, that.name)) return false;
         if (!Objects.equals(subject, that.subject)) return false;
         if (!Objects.equals(queueGroup, that.queueGroup)) return false;
@@ -247,8 +351,16 @@ public class EndpointStats implements JsonSerializable {
         result = 31 * result + (queueGroup != null ? queueGroup.hashCode() : 0);
         result = 31 * result + (int) (numRequests ^ (numRequests >>> 32));
         result = 31 * result + (int) (numErrors ^ (numErrors >>> 32));
+        result = 31 * result + (int) (numShed ^ (numShed >>> 32));
+        result = 31 * result + (int) (numExpired ^ (numExpired >>> 32));
         result = 31 * result + (int) (processingTime ^ (processingTime >>> 32));
         result = 31 * result + (int) (averageProcessingTime ^ (averageProcessingTime >>> 32));
+        result = 31 * result + (int) (processingTimeP50 ^ (processingTimeP50 >>> 32));
+        result = 31 * result + (int) (processingTimeP90 ^ (processingTimeP90 >>> 32));
+        result = 31 * result + (int) (processingTimeP99 ^ (processingTimeP99 >>> 32));
+        result = 31 * result + (int) (maxProcessingTime ^ (maxProcessingTime >>> 32));
+        long rpsBits = Double.doubleToLongBits(requestsPerSecond);
+        result = 31 * result + (int) (rpsBits ^ (rpsBits >>> 32));
         result = 31 * result + (lastError != null ? lastError.hashCode() : 0);
         result = 31 * result + (data != null ? data.hashCode() : 0);
         result = 31 * result + (started != null ? started.hashCode() : 0);
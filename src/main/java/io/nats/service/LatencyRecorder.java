@@ -0,0 +1,161 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records request processing times into a log-linear histogram and counts requests per second
+ * over a sliding window. Every power of two is split into 16 buckets, so a percentile is
+ * within about 6% of the actual value. Recording is lock free, only atomic adds and compare and sets.
+ * <p>Each slot of the requests per second window holds the second it counts in the high 32 bits
+ * and the count in the low 32 bits, so starting a new second and counting are one atomic update.</p>
+ */
+class LatencyRecorder {
+    static final int WINDOW_SECONDS = 10;
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long origin;
+    private final AtomicLongArray counts;
+    private final AtomicLong max;
+    private final AtomicLongArray secondSlots;
+    private volatile long resetSecond;
+
+    LatencyRecorder() {
+        origin = System.nanoTime();
+        counts = new AtomicLongArray(BUCKETS);
+        max = new AtomicLong();
+        secondSlots = new AtomicLongArray(WINDOW_SECONDS);
+        resetSecond = currentSecond();
+    }
+
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) {
+            m = max.get();
+        }
+
+        long second = currentSecond();
+        int slot = (int)(second % WINDOW_SECONDS);
+        while (true) {
+            long packed = secondSlots.get(slot);
+            long stamp = packed >>> COUNT_BITS;
+            if (stamp > second) {
+                return; // this thread was delayed so long its second already left the window
+            }
+            // the first request of a new second in this slot replaces the count of a second that left the window
+            long next = stamp == second ? packed + 1 : (second << COUNT_BITS) | 1;
+            if (secondSlots.compareAndSet(slot, packed, next)) {
+                return;
+            }
+        }
+    }
+
+    void reset() {
+        for (int x = 0; x < BUCKETS; x++) {
+            counts.set(x, 0);
+        }
+        max.set(0);
+        for (int x = 0; x < WINDOW_SECONDS; x++) {
+            secondSlots.set(x, 0);
+        }
+        resetSecond = currentSecond();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * The processing time at the percentile
+     * @param percentile the percentile, for instance 99.0
+     * @return the time in nanoseconds, or 0 if nothing was recorded
+     */
+    long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int x = 0; x < BUCKETS; x++) {
+            snapshot[x] = counts.get(x);
+            total += snapshot[x];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int x = 0; x < BUCKETS; x++) {
+            seen += snapshot[x];
+            if (seen >= rank) {
+                return Math.min(bucketMiddle(x), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * The average number of requests per second over the last {@value #WINDOW_SECONDS} complete seconds,
+     * or since the reset if that was more recent
+     * @return the requests per second
+     */
+    double getRequestsPerSecond() {
+        long now = currentSecond();
+        long seconds = Math.min(WINDOW_SECONDS, now - resetSecond);
+        if (seconds < 1) {
+            return 0;
+        }
+        long total = 0;
+        for (int x = 0; x < WINDOW_SECONDS; x++) {
+            long packed = secondSlots.get(x);
+            long stamp = packed >>> COUNT_BITS;
+            if (stamp < now && stamp >= now - seconds) {
+                total += packed & COUNT_MASK;
+            }
+        }
+        return (double)total / seconds;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int)value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BUCKET_BITS
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int)((value >>> shift) & (SUB_BUCKETS - 1));
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long bucketMiddle(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+
+    private long currentSecond() {
+        // starts at 1 so a stamp of 0 is never a recorded second
+        return (System.nanoTime() - origin) / NANOS_PER_SECOND + 1;
+    }
+}
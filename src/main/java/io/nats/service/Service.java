@@ -21,6 +21,7 @@ import io.nats.client.support.JsonUtils;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -237,6 +238,8 @@ public class Service {
                             // don't care if it completes successfully or not, just that it's done.
                         }
                     }
+
+                    awaitInFlight(serviceContexts.values(), drainTimeout);
                 }
 
                 // close internal dispatchers
@@ -256,6 +259,15 @@ public class Service {
         }
     }
 
+    // requests handed off to an endpoint executor may still be running,
+    // all endpoints together wait at most the drain timeout
+    static void awaitInFlight(Collection<EndpointContext> contexts, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        for (EndpointContext c : contexts) {
+            c.awaitInFlight(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        }
+    }
+
     /**
      * Reset the statistics for the endpoints
      */
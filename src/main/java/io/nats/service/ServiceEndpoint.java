@@ -18,6 +18,7 @@ import io.nats.client.support.JsonValue;
 import io.nats.client.support.Validator;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 
 import static io.nats.client.support.NatsConstants.DOT;
@@ -28,6 +29,8 @@ import static io.nats.client.support.NatsConstants.DOT;
  * <li>It allows the endpoint to be grouped.</li>
  * <li>It is where you can define the handler that will respond to incoming requests</li>
  * <li>It allows you to define it's dispatcher if desired giving granularity to threads running subscribers</li>
+ * <li>It allows requests to be handled concurrently, see {@link Builder#concurrency(int)}</li>
+ * <li>It allows requests to be rejected when the endpoint is overloaded, see {@link Builder#maxPending(long)}</li>
  * <li>It gives you a hook to provide custom data for the {@link EndpointStats}</li>
  * </ul>
  * <p>To create a ServiceEndpoint, use the ServiceEndpoint builder, which can be instantiated
@@ -40,6 +43,10 @@ public class ServiceEndpoint {
     private final ServiceMessageHandler handler;
     private final Dispatcher dispatcher;
     private final Supplier<JsonValue> statsDataSupplier;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final long maxPending;
+    private final int maxInFlight;
 
     private ServiceEndpoint(Builder b, Endpoint e) {
         this.group = b.group;
@@ -47,6 +54,10 @@ public class ServiceEndpoint {
         this.handler = b.handler;
         this.dispatcher = b.dispatcher;
         this.statsDataSupplier = b.statsDataSupplier;
+        this.concurrency = b.concurrency;
+        this.executor = b.executor;
+        this.maxPending = b.maxPending;
+        this.maxInFlight = b.maxInFlight;
     }
 
     // internal use constructor
@@ -56,6 +67,10 @@ public class ServiceEndpoint {
         this.handler = handler;
         this.dispatcher = dispatcher;
         this.statsDataSupplier = null;
+        this.concurrency = 0;
+        this.executor = null;
+        this.maxPending = 0;
+        this.maxInFlight = 0;
     }
 
     /**
@@ -118,6 +133,22 @@ public class ServiceEndpoint {
         return statsDataSupplier;
     }
 
+    protected int getConcurrency() {
+        return concurrency;
+    }
+
+    protected ExecutorService getExecutor() {
+        return executor;
+    }
+
+    protected long getMaxPending() {
+        return maxPending;
+    }
+
+    protected int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     /**
      * Get an instance of a ServiceEndpoint Builder.
      * @return the instance
@@ -134,6 +165,10 @@ public class ServiceEndpoint {
         private ServiceMessageHandler handler;
         private Dispatcher dispatcher;
         private Supplier<JsonValue> statsDataSupplier;
+        private int concurrency;
+        private ExecutorService executor;
+        private long maxPending;
+        private int maxInFlight;
         private Endpoint.Builder endpointBuilder = Endpoint.builder();
 
         /**
@@ -227,6 +262,61 @@ public class ServiceEndpoint {
             return this;
         }
 
+        /**
+         * Set the maximum number of requests to this ServiceEndpoint that are handled at the same time.
+         * When greater than 1, or when an executor is set, the dispatcher thread hands each request
+         * to the executor instead of running the handler itself. Once the maximum is reached the dispatcher
+         * waits for a handler to finish, so unhandled requests stay in the dispatcher's pending queue.
+         * Less than 1 means no maximum when there is an executor, otherwise requests are handled one at a time.
+         * The handler must be thread safe when requests are handled concurrently.
+         * @param concurrency the maximum concurrent requests
+         * @return the ServiceEndpoint.Builder
+         */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Set the executor that runs the handler for this ServiceEndpoint. If not set and
+         * the concurrency is greater than 1, the connection's executor is used.
+         * @param executor the executor
+         * @return the ServiceEndpoint.Builder
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the dispatcher pending message count at which requests to this ServiceEndpoint are shed,
+         * that is answered right away with a 503 error instead of being handled. A request that waits behind that many
+         * others would likely time out at the caller anyway, so handling it is wasted work.
+         * The count is for the whole dispatcher, which may be shared with other endpoints.
+         * Less than 1 means requests are not shed for the pending count.
+         * @param maxPending the pending message count
+         * @return the ServiceEndpoint.Builder
+         */
+        public Builder maxPending(long maxPending) {
+            this.maxPending = maxPending;
+            return this;
+        }
+
+        /**
+         * Set the number of requests handed to the executor and not finished at which
+         * further requests to this ServiceEndpoint are shed, answered right away with a 503 error.
+         * Only applies when requests are handled by an executor, see {@link #concurrency(int)}.
+         * Requests over the concurrency wait for a handler to finish, so a max in flight only sheds when it
+         * is not greater than the concurrency, or when there is no concurrency and the executor queues requests itself.
+         * Less than 1 means requests are not shed for the in flight count.
+         * @param maxInFlight the in flight count
+         * @return the ServiceEndpoint.Builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
         /**
          * Build the ServiceEndpoint instance.
          * @return the ServiceEndpoint instance
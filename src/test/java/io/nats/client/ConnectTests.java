@@ -15,6 +15,8 @@ package io.nats.client;
 
 import io.nats.client.ConnectionListener.Events;
 import io.nats.client.NatsServerProtocolMock.ExitAt;
+import io.nats.client.impl.NatsServerPool;
+import io.nats.client.impl.SimulateLateConnectFailure;
 import io.nats.client.impl.SimulateSocketDataPortException;
 import io.nats.client.impl.TestHandler;
 import org.junit.jupiter.api.Test;
@@ -22,7 +24,9 @@ import org.junit.jupiter.api.Test;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -68,6 +72,72 @@ public class ConnectTests {
         }
     }
 
+    @Test
+    public void testConnectAttemptDelay() throws Exception {
+        // the host resolves to an address that does not answer ahead of the one that does
+        NatsServerPool pool = new NatsServerPool() {
+            @Override
+            public List<String> resolveHostToIps(String host) {
+                return Arrays.asList("10.255.255.1", "127.0.0.1");
+            }
+        };
+        try (NatsServerProtocolMock ts = new NatsServerProtocolMock(ExitAt.NO_EXIT)) {
+            Options options = new Options.Builder().server(ts.getURI()).serverPool(pool)
+                .connectionTimeout(Duration.ofSeconds(5)).connectAttemptDelay(Duration.ofMillis(100)).build();
+            long start = System.currentTimeMillis();
+            Connection nc = Nats.connect(options);
+            try {
+                assertConnected(nc);
+                assertTrue(System.currentTimeMillis() - start < 2500);
+            }
+            finally {
+                standardCloseConnection(nc);
+            }
+        }
+    }
+
+    @Test
+    public void testConnectAttemptThatFailsLate() throws Exception {
+        // the first address connects but fails its handshake after the second one already won
+        NatsServerPool pool = new NatsServerPool() {
+            @Override
+            public List<String> resolveHostToIps(String host) {
+                return Arrays.asList("localhost", "127.0.0.1");
+            }
+        };
+        AtomicBoolean lateFailureReceived = new AtomicBoolean();
+        ErrorListener el = new ErrorListener() {
+            @Override
+            public void exceptionOccurred(Connection conn, Exception exp) {
+                if (exp.getMessage() != null && exp.getMessage().contains("Simulated Late Failure")) {
+                    lateFailureReceived.set(true);
+                }
+            }
+        };
+        SimulateLateConnectFailure.FAIL_HOST.set("localhost");
+        SimulateLateConnectFailure.CLOSED_WHILE_CONNECTING.set(false);
+        try (NatsTestServer ts = new NatsTestServer(false)) {
+            Options options = new Options.Builder().server(ts.getURI()).serverPool(pool)
+                .dataPortType("io.nats.client.impl.SimulateLateConnectFailure").errorListener(el)
+                .connectionTimeout(Duration.ofSeconds(5)).connectAttemptDelay(Duration.ofMillis(100)).build();
+            Connection nc = Nats.connect(options);
+            try {
+                assertConnected(nc);
+
+                // the loser is closed as soon as the winner is picked, its failure does not reach the connection
+                assertTrue(SimulateLateConnectFailure.CLOSED_WHILE_CONNECTING.get());
+                Thread.sleep(1500);
+                assertConnected(nc);
+                assertEquals(0, nc.getStatistics().getReconnects());
+                assertFalse(lateFailureReceived.get());
+            }
+            finally {
+                standardCloseConnection(nc);
+                SimulateLateConnectFailure.FAIL_HOST.set(null);
+            }
+        }
+    }
+
     @Test
     public void testFullFakeConnectWithTabs() throws Exception {
         try (NatsServerProtocolMock ts = new NatsServerProtocolMock(ExitAt.NO_EXIT)) {
@@ -49,6 +49,7 @@ public class NUIDTests {
         String nuid = new NUID().next();
         assertEquals(NUID.totalLen,
                 nuid.length(), String.format("Expected len of %d, got %d", NUID.totalLen, nuid.length()));
+        assertEquals(22, NUID.totalLength());
     }
 
     @Test
@@ -83,4 +84,36 @@ public class NUIDTests {
             }
         }
     }
+
+    @Test
+    public void testNextIntoArray() {
+        NUID nuid = new NUID();
+        char[] chars = new char[NUID.totalLen + 3];
+        chars[0] = 'x';
+        chars[1] = 'y';
+        chars[chars.length - 1] = 'z';
+        nuid.next(chars, 2);
+        assertEquals('x', chars[0]);
+        assertEquals('y', chars[1]);
+        assertEquals('z', chars[chars.length - 1]);
+        assertArrayEquals(new String(nuid.getPre()).toCharArray(), Arrays.copyOfRange(chars, 2, 2 + NUID.preLen));
+
+        String next = nuid.next();
+        assertEquals(NUID.totalLen, next.length());
+        assertNotEquals(next, new String(chars, 2, NUID.totalLen));
+    }
+
+    @Test
+    public void testThreadLocal() throws Exception {
+        NUID mine = NUID.threadLocal();
+        assertSame(mine, NUID.threadLocal());
+        assertEquals(NUID.totalLen, NUID.nextThreadLocal().length());
+
+        NUID[] other = new NUID[1];
+        Thread t = new Thread(() -> other[0] = NUID.threadLocal());
+        t.start();
+        t.join();
+        assertNotNull(other[0]);
+        assertNotSame(mine, other[0]);
+    }
 }
@@ -15,6 +15,7 @@ package io.nats.client;
 
 import io.nats.client.ConnectionListener.Events;
 import io.nats.client.impl.*;
+import io.nats.client.support.DeflatePayloadCodec;
 import io.nats.client.support.HttpRequest;
 import io.nats.client.support.NatsUri;
 import io.nats.client.utils.CloseOnUpgradeAttempt;
@@ -74,6 +75,11 @@ public class OptionsTests {
         assertFalse(o.isNoEcho(), "default noEcho");
         assertFalse(o.isNoHeaders(), "default header support");
         assertFalse(o.isNoNoResponders(), "default no responders support");
+        assertFalse(o.isThreadLocalNuid(), "default thread local nuid");
+        assertFalse(o.isRequestDeadlineHeader(), "default request deadline header");
+        assertFalse(o.isDiscardExpiredRequests(), "default discard expired requests");
+        assertFalse(o.isRequestCoalescing(), "default request coalescing");
+        assertFalse(o.isPreferLowLatencyServers(), "default prefer low latency servers");
         assertEquals(Options.DEFAULT_DISCARD_MESSAGES_WHEN_OUTGOING_QUEUE_FULL, o.isDiscardMessagesWhenOutgoingQueueFull(),
             "default discard messages when outgoing queue full");
 
@@ -118,7 +124,8 @@ public class OptionsTests {
     public void testChainedBooleanOptions() {
         Options o = new Options.Builder().verbose().pedantic().noRandomize()
             .noEcho().oldRequestStyle().noHeaders().noNoResponders()
-            .discardMessagesWhenOutgoingQueueFull()
+            .discardMessagesWhenOutgoingQueueFull().threadLocalNuid()
+            .requestDeadlineHeader().discardExpiredRequests().requestCoalescing().preferLowLatencyServers()
             .build();
         _testChainedBooleanOptions(o);
         _testChainedBooleanOptions(new Options.Builder(o).build());
@@ -134,6 +141,11 @@ public class OptionsTests {
         assertTrue(o.isNoHeaders(), "chained no headers");
         assertTrue(o.isNoNoResponders(), "chained no noResponders");
         assertTrue(o.isDiscardMessagesWhenOutgoingQueueFull(), "chained discard messages when outgoing queue full");
+        assertTrue(o.isThreadLocalNuid(), "chained thread local nuid");
+        assertTrue(o.isRequestDeadlineHeader(), "chained request deadline header");
+        assertTrue(o.isDiscardExpiredRequests(), "chained discard expired requests");
+        assertTrue(o.isRequestCoalescing(), "chained request coalescing");
+        assertTrue(o.isPreferLowLatencyServers(), "chained prefer low latency servers");
     }
 
     @Test
@@ -288,6 +300,11 @@ public class OptionsTests {
         props.setProperty(Options.PROP_OPENTLS, "true");
         props.setProperty(Options.PROP_NO_ECHO, "true");
         props.setProperty(Options.PROP_DISCARD_MESSAGES_WHEN_OUTGOING_QUEUE_FULL, "true");
+        props.setProperty(Options.PROP_THREAD_LOCAL_NUID, "true");
+        props.setProperty(Options.PROP_REQUEST_DEADLINE_HEADER, "true");
+        props.setProperty(Options.PROP_DISCARD_EXPIRED_REQUESTS, "true");
+        props.setProperty(Options.PROP_REQUEST_COALESCING, "true");
+        props.setProperty(Options.PROP_PREFER_LOW_LATENCY_SERVERS, "true");
 
         Options o = new Options.Builder(props).build();
         _testPropertiesBooleanBuilder(o);
@@ -302,6 +319,11 @@ public class OptionsTests {
         assertTrue(o.isOldRequestStyle(), "property oldstyle");
         assertTrue(o.isNoEcho(), "property noecho");
         assertTrue(o.isDiscardMessagesWhenOutgoingQueueFull(), "property discard messages when outgoing queue full");
+        assertTrue(o.isThreadLocalNuid(), "property thread local nuid");
+        assertTrue(o.isRequestDeadlineHeader(), "property request deadline header");
+        assertTrue(o.isDiscardExpiredRequests(), "property discard expired requests");
+        assertTrue(o.isRequestCoalescing(), "property request coalescing");
+        assertTrue(o.isPreferLowLatencyServers(), "property prefer low latency servers");
         assertNotNull(o.getSslContext(), "property opentls");
     }
 
@@ -972,6 +994,124 @@ public class OptionsTests {
         assertEquals(10, rdhO.getWaitTime(5).getSeconds());
     }
 
+    @Test
+    public void testPayloadCodecOptions() {
+        Options o = new Options.Builder().build();
+        assertNull(o.getPayloadCodec());
+        assertEquals(Options.DEFAULT_PAYLOAD_CODEC_THRESHOLD, o.getPayloadCodecThreshold());
+        assertNull(o.getPayloadCodecSubjects());
+
+        PayloadCodec codec = new DeflatePayloadCodec();
+        o = new Options.Builder().payloadCodec(codec).payloadCodecThreshold(100).payloadCodecSubjects("events.>", "logs.*").build();
+        _testPayloadCodecOptions(o, codec);
+        _testPayloadCodecOptions(new Options.Builder(o).build(), codec);
+
+        o = new Options.Builder().payloadCodecThreshold(-1).payloadCodecSubjects().build();
+        assertEquals(Options.DEFAULT_PAYLOAD_CODEC_THRESHOLD, o.getPayloadCodecThreshold());
+        assertNull(o.getPayloadCodecSubjects());
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().payloadCodecSubjects("bad subject"));
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_PAYLOAD_CODEC_CLASS, DeflatePayloadCodec.class.getCanonicalName());
+        props.setProperty(Options.PROP_PAYLOAD_CODEC_THRESHOLD, "200");
+        o = new Options.Builder(props).build();
+        assertTrue(o.getPayloadCodec() instanceof DeflatePayloadCodec);
+        assertEquals(200, o.getPayloadCodecThreshold());
+    }
+
+    private static void _testPayloadCodecOptions(Options o, PayloadCodec codec) {
+        assertSame(codec, o.getPayloadCodec());
+        assertEquals(100, o.getPayloadCodecThreshold());
+        assertEquals(Arrays.asList("events.>", "logs.*"), o.getPayloadCodecSubjects());
+    }
+
+    @Test
+    public void testResponseCacheOptions() {
+        Options o = new Options.Builder().build();
+        assertNull(o.getResponseCacheTtls());
+        assertEquals(Options.DEFAULT_RESPONSE_CACHE_MAX_ENTRIES, o.getResponseCacheMaxEntries());
+
+        o = new Options.Builder()
+            .responseCache("ref.currency", Duration.ofMinutes(5))
+            .responseCache("ref.>", Duration.ofSeconds(30))
+            .responseCacheMaxEntries(50)
+            .build();
+        _testResponseCacheOptions(o);
+        _testResponseCacheOptions(new Options.Builder(o).build());
+
+        o = new Options.Builder().responseCacheMaxEntries(0).build();
+        assertEquals(Options.DEFAULT_RESPONSE_CACHE_MAX_ENTRIES, o.getResponseCacheMaxEntries());
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().responseCache("bad subject", Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().responseCache("ref.>", null));
+        assertThrows(IllegalArgumentException.class, () -> new Options.Builder().responseCache("ref.>", Duration.ZERO));
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_RESPONSE_CACHE_MAX_ENTRIES, "200");
+        o = new Options.Builder(props).build();
+        assertEquals(200, o.getResponseCacheMaxEntries());
+    }
+
+    @Test
+    public void testRequestHedgeDelayOptions() {
+        assertNull(new Options.Builder().build().getRequestHedgeDelay());
+        assertNull(new Options.Builder().requestHedgeDelay(Duration.ZERO).build().getRequestHedgeDelay());
+        assertNull(new Options.Builder().requestHedgeDelay(Duration.ofMillis(-1)).build().getRequestHedgeDelay());
+
+        Options o = new Options.Builder().requestHedgeDelay(Duration.ofMillis(50)).build();
+        assertEquals(Duration.ofMillis(50), o.getRequestHedgeDelay());
+        assertEquals(Duration.ofMillis(50), new Options.Builder(o).build().getRequestHedgeDelay());
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_REQUEST_HEDGE_DELAY, "75");
+        assertEquals(Duration.ofMillis(75), new Options.Builder(props).build().getRequestHedgeDelay());
+    }
+
+    @Test
+    public void testConnectAttemptDelayOptions() {
+        assertNull(new Options.Builder().build().getConnectAttemptDelay());
+        assertNull(new Options.Builder().connectAttemptDelay(Duration.ZERO).build().getConnectAttemptDelay());
+
+        Options o = new Options.Builder().connectAttemptDelay(Duration.ofMillis(250)).build();
+        assertEquals(Duration.ofMillis(250), o.getConnectAttemptDelay());
+        assertEquals(Duration.ofMillis(250), new Options.Builder(o).build().getConnectAttemptDelay());
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_CONNECT_ATTEMPT_DELAY, "300");
+        assertEquals(Duration.ofMillis(300), new Options.Builder(props).build().getConnectAttemptDelay());
+    }
+
+    @Test
+    public void testDnsCacheTtlOptions() {
+        assertNull(new Options.Builder().build().getDnsCacheTtl());
+        assertNull(new Options.Builder().dnsCacheTtl(Duration.ofSeconds(-1)).build().getDnsCacheTtl());
+
+        Options o = new Options.Builder().dnsCacheTtl(Duration.ofSeconds(30)).build();
+        assertEquals(Duration.ofSeconds(30), o.getDnsCacheTtl());
+        assertEquals(Duration.ofSeconds(30), new Options.Builder(o).build().getDnsCacheTtl());
+
+        Properties props = new Properties();
+        props.setProperty(Options.PROP_DNS_CACHE_TTL, "60000");
+        assertEquals(Duration.ofMinutes(1), new Options.Builder(props).build().getDnsCacheTtl());
+
+        // max stale defaults to the time to live
+        assertNull(new Options.Builder().build().getDnsCacheMaxStale());
+        assertEquals(Duration.ofSeconds(30), o.getDnsCacheMaxStale());
+        o = new Options.Builder().dnsCacheTtl(Duration.ofSeconds(30)).dnsCacheMaxStale(Duration.ofMinutes(10)).build();
+        assertEquals(Duration.ofMinutes(10), o.getDnsCacheMaxStale());
+        assertEquals(Duration.ofMinutes(10), new Options.Builder(o).build().getDnsCacheMaxStale());
+        o = new Options.Builder().dnsCacheTtl(Duration.ofSeconds(30)).dnsCacheMaxStale(Duration.ZERO).build();
+        assertEquals(Duration.ofSeconds(30), o.getDnsCacheMaxStale());
+        props.setProperty(Options.PROP_DNS_CACHE_MAX_STALE, "120000");
+        assertEquals(Duration.ofMinutes(2), new Options.Builder(props).build().getDnsCacheMaxStale());
+    }
+
+    private static void _testResponseCacheOptions(Options o) {
+        assertEquals(50, o.getResponseCacheMaxEntries());
+        assertEquals(Arrays.asList("ref.currency", "ref.>"), new ArrayList<>(o.getResponseCacheTtls().keySet()));
+        assertEquals(Duration.ofMinutes(5), o.getResponseCacheTtls().get("ref.currency"));
+        assertEquals(Duration.ofSeconds(30), o.getResponseCacheTtls().get("ref.>"));
+    }
+
     @Test
     public void testInboxPrefixCoverage() {
         Options o = new Options.Builder().inboxPrefix("foo").build();
@@ -232,6 +232,43 @@ public class HeadersTests {
         assertEquals(VAL1, headers2.getFirst(KEY1));
     }
 
+    @Test
+    public void testFreeze() {
+        Headers notFrozen = new Headers();
+        notFrozen.add(KEY1, VAL1);
+        notFrozen.add(KEY2, VAL2, VAL3);
+        assertFalse(notFrozen.isFrozen());
+
+        Headers frozen = notFrozen.freeze();
+        assertTrue(frozen.isFrozen());
+        assertTrue(frozen.isReadOnly());
+        assertFalse(frozen.isDirty());
+        assertSame(frozen, frozen.freeze());
+        assertEquals(notFrozen, frozen);
+        assertArrayEquals(notFrozen.getSerialized(), frozen.getSerialized());
+        assertEquals(notFrozen.serializedLength(), frozen.serializedLength());
+
+        assertThrows(UnsupportedOperationException.class, () -> frozen.put(KEY1, VAL2));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.add(KEY1, VAL2));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(KEY1));
+        assertThrows(UnsupportedOperationException.class, frozen::clear);
+
+        // changing the original or a copy does not change the frozen
+        notFrozen.add(KEY1, VAL4);
+        Headers copy = new Headers(frozen);
+        assertFalse(copy.isFrozen());
+        copy.add(KEY2, VAL5);
+        assertEquals(1, frozen.get(KEY1).size());
+        assertEquals(2, frozen.get(KEY2).size());
+
+        byte[] dest = new byte[frozen.serializedLength() + 2];
+        assertEquals(frozen.serializedLength(), frozen.serializeToArray(2, dest));
+        assertArrayEquals(frozen.getSerialized(), Arrays.copyOfRange(dest, 2, dest.length));
+
+        NatsMessage m = new NatsMessage("subject", null, frozen, null);
+        assertSame(frozen, m.getHeaders());
+    }
+
     @Test
     public void keyCannotBeNullOrEmpty() {
         Headers headers = new Headers();
@@ -22,6 +22,10 @@ import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static io.nats.client.JetStreamOptions.DEFAULT_JS_OPTIONS;
 import static io.nats.client.api.KeyValuePurgeOptions.DEFAULT_THRESHOLD_MILLIS;
@@ -367,6 +371,316 @@ public class KeyValueTests extends JetStreamTestBase {
         });
     }
 
+    @Test
+    public void testNearCache() throws Exception {
+        jsServer.run(nc -> {
+            KeyValueManagement kvm = nc.keyValueManagement();
+
+            String bucket = bucket();
+            kvm.create(KeyValueConfiguration.builder()
+                .name(bucket)
+                .storageType(StorageType.Memory)
+                .build());
+
+            KeyValue cached = nc.keyValue(bucket, KeyValueOptions.builder().nearCacheMaxEntries(2).build());
+            NatsKeyValueNearCache nearCache = ((NatsKeyValue)cached).getNearCache();
+            assertNotNull(nearCache);
+            KeyValue other = nc.keyValue(bucket);
+
+            // a miss is not cached
+            assertNull(cached.get("a"));
+            assertEquals(0, nearCache.size());
+
+            long rev = other.put("a", "a1");
+            KeyValueEntry kve = cached.get("a");
+            assertEquals("a1", kve.getValueAsString());
+            assertEquals(rev, kve.getRevision());
+            assertEquals(1, nearCache.size());
+            assertSame(kve, cached.get("a")); // served from the cache
+
+            // another client writes, the watch updates the cached entry
+            rev = other.put("a", "a2");
+            assertRevisionEventually(cached, "a", rev);
+            assertEquals("a2", cached.get("a").getValueAsString());
+
+            // another client deletes
+            other.delete("a");
+            long deleteRev = rev + 1;
+            waitUntil(() -> nearCache.get("a") != null && nearCache.get("a").getRevision() == deleteRev);
+            assertNull(cached.get("a"));
+
+            // writes through the cached instance are seen immediately
+            rev = cached.put("a", "a3");
+            assertEquals(rev, cached.get("a").getRevision());
+
+            // least recently used is evicted
+            other.put("b", "b");
+            other.put("c", "c");
+            cached.get("b");
+            cached.get("c");
+            assertEquals(2, nearCache.size());
+            assertNull(nearCache.get("a"));
+
+            // a read in flight while its key changes is not cached, reads of other keys still are
+            long dRev = other.put("d", "d1");
+            other.put("e", "e1");
+            KeyValueEntry d1 = other.get("d");
+            KeyValueEntry e1 = other.get("e");
+            nearCache.readStarted("d");
+            nearCache.readStarted("e");
+            nearCache.invalidate("d", dRev + 10);
+            nearCache.readFinished("d", d1);
+            nearCache.readFinished("e", e1);
+            assertNull(nearCache.get("d"));
+            assertSame(e1, nearCache.get("e"));
+
+            // closed, the cache is emptied and no longer used
+            cached.closeNearCache();
+            assertEquals(0, nearCache.size());
+            kve = cached.get("e");
+            assertNotSame(kve, cached.get("e"));
+            assertEquals(0, nearCache.size());
+
+            // ttl
+            KeyValue ttl = nc.keyValue(bucket, KeyValueOptions.builder().nearCacheMaxEntries(10).nearCacheTtl(Duration.ofMillis(100)).build());
+            kve = ttl.get("b");
+            assertSame(kve, ttl.get("b"));
+            sleep(200);
+            assertNotSame(kve, ttl.get("b"));
+        });
+    }
+
+    @Test
+    public void testReplica() throws Exception {
+        jsServer.run(nc -> {
+            KeyValueManagement kvm = nc.keyValueManagement();
+
+            String bucket = bucket();
+            kvm.create(KeyValueConfiguration.builder()
+                .name(bucket)
+                .storageType(StorageType.Memory)
+                .build());
+
+            KeyValue kv = nc.keyValue(bucket);
+            kv.put("route.a", "a1");
+            kv.put("route.a", "a2");
+            kv.put("route.b", "b");
+            kv.put("other", "o");
+            long rev = kv.put("gone", "g");
+            kv.delete("gone");
+
+            try (KeyValueReplica replica = kv.createReplica(Duration.ofSeconds(5))) {
+                assertEquals(bucket, replica.getBucketName());
+                assertEquals(rev + 1, replica.getLastRevision());
+                assertEquals(3, replica.size());
+                assertEquals("a2", replica.get("route.a").getValueAsString());
+                assertNull(replica.get("gone"));
+                assertEquals(Arrays.asList("other", "route.a", "route.b"), replica.keys());
+                assertEquals(Arrays.asList("route.a", "route.b"), replica.keys("route."));
+                List<KeyValueEntry> entries = replica.entries("route.");
+                assertEquals(2, entries.size());
+                assertEquals("b", entries.get(1).getValueAsString());
+                assertEquals(0, replica.keys("none").size());
+
+                // follows updates
+                rev = kv.put("route.c", "c");
+                assertTrue(replica.waitForRevision(rev, Duration.ofSeconds(5)));
+                assertEquals("c", replica.get("route.c").getValueAsString());
+                kv.purge("route.a");
+                assertTrue(replica.waitForRevision(rev + 1, Duration.ofSeconds(5)));
+                assertNull(replica.get("route.a"));
+                assertFalse(replica.waitForRevision(rev + 2, Duration.ofMillis(100)));
+
+                // closed replicas stop following
+                replica.close();
+                kv.put("route.d", "d");
+                assertFalse(replica.waitForRevision(rev + 2, Duration.ofMillis(500)));
+                assertNull(replica.get("route.d"));
+            }
+
+            // empty bucket loads immediately
+            String empty = bucket();
+            kvm.create(KeyValueConfiguration.builder()
+                .name(empty)
+                .storageType(StorageType.Memory)
+                .build());
+            try (KeyValueReplica replica = nc.keyValue(empty).createReplica(Duration.ofSeconds(5))) {
+                assertEquals(0, replica.size());
+                assertEquals(0, replica.getLastRevision());
+            }
+        });
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        jsServer.run(nc -> {
+            KeyValueManagement kvm = nc.keyValueManagement();
+
+            String bucket = bucket();
+            kvm.create(KeyValueConfiguration.builder()
+                .name(bucket)
+                .storageType(StorageType.Memory)
+                .build());
+
+            KeyValue kv = nc.keyValue(bucket, KeyValueOptions.builder().maxAsyncInFlight(10).build());
+
+            // ten times the window at once, each waits for a place instead of failing
+            List<CompletableFuture<Long>> puts = new ArrayList<>();
+            for (int x = 0; x < 100; x++) {
+                puts.add(kv.putAsync("key" + x, "value" + x));
+            }
+            for (int x = 0; x < 100; x++) {
+                assertEquals(x + 1, puts.get(x).get(5, TimeUnit.SECONDS));
+            }
+
+            List<CompletableFuture<KeyValueEntry>> gets = new ArrayList<>();
+            for (int x = 0; x < 100; x++) {
+                gets.add(kv.getAsync("key" + x));
+            }
+            for (int x = 0; x < 100; x++) {
+                KeyValueEntry kve = gets.get(x).get(5, TimeUnit.SECONDS);
+                assertEquals("value" + x, kve.getValueAsString());
+                assertEquals(x + 1, kve.getRevision());
+            }
+
+            assertNull(kv.getAsync("missing").get(5, TimeUnit.SECONDS));
+
+            long rev = kv.updateAsync("key0", "updated".getBytes(), 1).get(5, TimeUnit.SECONDS);
+            assertEquals(101, rev);
+            assertEquals("updated", kv.get("key0").getValueAsString());
+            ExecutionException ee = assertThrows(ExecutionException.class,
+                () -> kv.updateAsync("key0", "wrong".getBytes(), 1).get(5, TimeUnit.SECONDS));
+            assertNotNull(ee.getCause());
+
+            assertEquals(102, kv.deleteAsync("key1").get(5, TimeUnit.SECONDS));
+            assertNull(kv.getAsync("key1").get(5, TimeUnit.SECONDS));
+            assertNull(kv.get("key1"));
+
+            assertThrows(IllegalArgumentException.class, () -> kv.putAsync("bad.*", "x"));
+
+            // create only works if the key is new or deleted
+            long created = kv.createAsync("created", "c1".getBytes()).get(5, TimeUnit.SECONDS);
+            assertEquals("c1", kv.get("created").getValueAsString());
+            ee = assertThrows(ExecutionException.class,
+                () -> kv.createAsync("created", "c2".getBytes()).get(5, TimeUnit.SECONDS));
+            assertNotNull(ee.getCause());
+            kv.deleteAsync("created").get(5, TimeUnit.SECONDS);
+            assertEquals(created + 2, kv.createAsync("created", "c3".getBytes()).get(5, TimeUnit.SECONDS));
+            assertEquals("c3", kv.get("created").getValueAsString());
+
+            // works with the near cache
+            KeyValue cached = nc.keyValue(bucket, KeyValueOptions.builder().nearCacheMaxEntries(10).build());
+            KeyValueEntry kve = cached.getAsync("key2").get(5, TimeUnit.SECONDS);
+            assertSame(kve, cached.getAsync("key2").get(5, TimeUnit.SECONDS));
+            rev = cached.putAsync("key2", "new").get(5, TimeUnit.SECONDS);
+            assertEquals(rev, cached.getAsync("key2").get(5, TimeUnit.SECONDS).getRevision());
+
+            // reads through the window, including misses, leave no read tracked
+            List<CompletableFuture<KeyValueEntry>> cachedGets = new ArrayList<>();
+            for (int x = 0; x < 50; x++) {
+                cachedGets.add(cached.getAsync("key" + x));
+                cachedGets.add(cached.getAsync("missing" + x));
+            }
+            for (CompletableFuture<KeyValueEntry> f : cachedGets) {
+                f.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(0, ((NatsKeyValue)cached).getNearCache().readsInFlight());
+            cached.closeNearCache();
+        });
+    }
+
+    @Test
+    public void testKeysFilterAndConsume() throws Exception {
+        jsServer.run(nc -> {
+            KeyValueManagement kvm = nc.keyValueManagement();
+
+            String bucket = bucket();
+            kvm.create(KeyValueConfiguration.builder()
+                .name(bucket)
+                .storageType(StorageType.Memory)
+                .build());
+
+            KeyValue kv = nc.keyValue(bucket);
+            for (int x = 0; x < 2500; x++) {
+                kv.putAsync("a." + x, "a");
+            }
+            kv.put("b.1", "b");
+            kv.put("b.2", "b");
+            kv.put("b.2.c", "b");
+            kv.delete("b.2");
+
+            assertEquals(2503, kv.keys().size());
+            assertEquals(2500, kv.keys("a.*").size());
+            assertEquals(Arrays.asList("b.1"), kv.keys("b.*"));
+            assertEquals(Arrays.asList("b.1", "b.2.c"), kv.keys("b.>"));
+            assertEquals(0, kv.keys("c.>").size());
+            assertThrows(IllegalArgumentException.class, () -> kv.keys(null));
+
+            // consumed through a bounded queue, so the producer waits for the reader
+            LinkedBlockingQueue<KeyResult> q = kv.consumeKeys("a.>");
+            Set<String> keys = new HashSet<>();
+            KeyResult r = q.poll(5, TimeUnit.SECONDS);
+            while (r != null && !r.isDone()) {
+                assertTrue(r.isKey());
+                assertFalse(r.isException());
+                keys.add(r.getKey());
+                r = q.poll(5, TimeUnit.SECONDS);
+            }
+            assertNotNull(r);
+            assertNull(r.getException());
+            assertEquals(2500, keys.size());
+
+            r = kv.consumeKeys("c.>").poll(5, TimeUnit.SECONDS);
+            assertNotNull(r);
+            assertTrue(r.isDone());
+            assertFalse(r.isKey());
+
+            assertEquals(2503, drainKeys(kv.consumeKeys()));
+
+            // a queue that is not read stops the listing, what is left to read is the done result with the exception
+            KeyValue abandoning = nc.keyValue(bucket, KeyValueOptions.builder().consumeKeysTimeout(Duration.ofMillis(200)).build());
+            LinkedBlockingQueue<KeyResult> abandoned = abandoning.consumeKeys();
+            waitUntil(() -> abandoned.size() == 1 && abandoned.peek().isException());
+            r = abandoned.poll(5, TimeUnit.SECONDS);
+            assertNotNull(r);
+            assertTrue(r.isDone());
+            assertTrue(r.getException() instanceof IllegalStateException);
+            assertNull(abandoned.poll(500, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    private static int drainKeys(LinkedBlockingQueue<KeyResult> q) throws InterruptedException {
+        int count = 0;
+        KeyResult r = q.poll(5, TimeUnit.SECONDS);
+        while (r != null && r.isKey()) {
+            count++;
+            r = q.poll(5, TimeUnit.SECONDS);
+        }
+        return count;
+    }
+
+    private static void assertRevisionEventually(KeyValue kv, String key, long rev) throws Exception {
+        long end = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < end) {
+            KeyValueEntry kve = kv.get(key);
+            if (kve != null && kve.getRevision() == rev) {
+                return;
+            }
+            sleep(10);
+        }
+        fail("Revision " + rev + " not seen for key " + key);
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) {
+        long end = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > end) {
+                fail("Condition not met in time");
+            }
+            sleep(10);
+        }
+    }
+
     @Test
     public void testKeys() throws Exception {
         jsServer.run(nc -> {
@@ -1217,9 +1531,37 @@ public class KeyValueTests extends JetStreamTestBase {
 
         kvo = KeyValueOptions.builder().jsRequestTimeout(Duration.ofSeconds(10)).build();
         assertEquals(Duration.ofSeconds(10), kvo.getJetStreamOptions().getRequestTimeout());
+
+        kvo = KeyValueOptions.builder().nearCacheMaxEntries(100).nearCacheTtl(Duration.ofSeconds(5)).build();
+        assertTrue(kvo.isNearCacheEnabled());
+        assertEquals(100, kvo.getNearCacheMaxEntries());
+        assertEquals(Duration.ofSeconds(5), kvo.getNearCacheTtl());
+        kvo = KeyValueOptions.builder(kvo).build();
+        assertEquals(100, kvo.getNearCacheMaxEntries());
+        assertEquals(Duration.ofSeconds(5), kvo.getNearCacheTtl());
+
+        kvo = KeyValueOptions.builder().nearCacheMaxEntries(0).nearCacheTtl(Duration.ZERO).build();
+        assertFalse(kvo.isNearCacheEnabled());
+        assertNull(kvo.getNearCacheTtl());
+
+        kvo = KeyValueOptions.builder().maxAsyncInFlight(10).build();
+        assertEquals(10, kvo.getMaxAsyncInFlight());
+        assertEquals(10, KeyValueOptions.builder(kvo).build().getMaxAsyncInFlight());
+        kvo = KeyValueOptions.builder().maxAsyncInFlight(0).build();
+        assertEquals(KeyValueOptions.DEFAULT_MAX_ASYNC_IN_FLIGHT, kvo.getMaxAsyncInFlight());
+
+        kvo = KeyValueOptions.builder().consumeKeysTimeout(Duration.ofSeconds(2)).build();
+        assertEquals(Duration.ofSeconds(2), kvo.getConsumeKeysTimeout());
+        assertEquals(Duration.ofSeconds(2), KeyValueOptions.builder(kvo).build().getConsumeKeysTimeout());
+        assertNull(KeyValueOptions.builder().consumeKeysTimeout(Duration.ZERO).build().getConsumeKeysTimeout());
     }
 
     private void assertKvoBuilderCoverage(KeyValueOptions kvo) {
+        assertFalse(kvo.isNearCacheEnabled());
+        assertEquals(0, kvo.getNearCacheMaxEntries());
+        assertNull(kvo.getNearCacheTtl());
+        assertEquals(KeyValueOptions.DEFAULT_MAX_ASYNC_IN_FLIGHT, kvo.getMaxAsyncInFlight());
+        assertNull(kvo.getConsumeKeysTimeout());
         JetStreamOptions jso = kvo.getJetStreamOptions();
         assertEquals(DEFAULT_JS_OPTIONS.getRequestTimeout(), jso.getRequestTimeout());
         assertEquals(DEFAULT_JS_OPTIONS.getPrefix(), jso.getPrefix());
@@ -16,18 +16,142 @@ package io.nats.client.impl;
 
 import io.nats.client.*;
 import io.nats.client.ConnectionListener.Events;
+import io.nats.client.support.DeflatePayloadCodec;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 
 public class MessageContentTests {
+    @Test
+    public void testPayloadCodec() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+                Connection nc = Nats.connect(new Options.Builder().server(ts.getURI())
+                    .payloadCodec(new DeflatePayloadCodec()).payloadCodecThreshold(100).payloadCodecSubjects("codec", "codec.>").build());
+                Connection plain = Nats.connect(ts.getURI())) {
+            StringBuilder sb = new StringBuilder();
+            for (int x = 0; x < 100; x++) {
+                sb.append("{\"event\":\"created\"}");
+            }
+            byte[] big = sb.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] small = "small".getBytes(StandardCharsets.UTF_8);
+
+            Subscription sub = nc.subscribe("codec");
+            Subscription plainSub = plain.subscribe("codec");
+            nc.flush(Duration.ofSeconds(1));
+            plain.flush(Duration.ofSeconds(1));
+
+            nc.publish("codec", big);
+            nc.publish("codec", small);
+
+            // decoded by a connection with the codec
+            Message m = sub.nextMessage(Duration.ofSeconds(1));
+            assertArrayEquals(big, m.getData());
+            assertFalse(m.hasHeaders() && m.getHeaders().containsKey(PayloadCodec.CONTENT_ENCODING_HDR));
+            m = sub.nextMessage(Duration.ofSeconds(1));
+            assertArrayEquals(small, m.getData());
+
+            // sent compressed, under the threshold as is
+            m = plainSub.nextMessage(Duration.ofSeconds(1));
+            assertEquals(DeflatePayloadCodec.NAME, m.getHeaders().getFirst(PayloadCodec.CONTENT_ENCODING_HDR));
+            assertTrue(m.getData().length < big.length);
+            m = plainSub.nextMessage(Duration.ofSeconds(1));
+            assertArrayEquals(small, m.getData());
+            assertFalse(m.hasHeaders());
+
+            // a dispatcher can have the codec even if the connection does not
+            AtomicReference<byte[]> received = new AtomicReference<>();
+            CompletableFuture<Boolean> done = new CompletableFuture<>();
+            Dispatcher d = plain.createDispatcher(msg -> {
+                received.set(msg.getData());
+                done.complete(true);
+            });
+            d.setPayloadCodec(new DeflatePayloadCodec());
+            d.subscribe("codec.dispatcher");
+            plain.flush(Duration.ofSeconds(1));
+            nc.publish("codec.dispatcher", big);
+            done.get(1, TimeUnit.SECONDS);
+            assertArrayEquals(big, received.get());
+        }
+    }
+
+    @Test
+    public void testPayloadCodecSubjects() throws Exception {
+        assertTrue(NatsConnection.subjectMatches("a.b", "a.b"));
+        assertTrue(NatsConnection.subjectMatches("a.*", "a.b"));
+        assertTrue(NatsConnection.subjectMatches("a.>", "a.b.c"));
+        assertTrue(NatsConnection.subjectMatches(">", "a"));
+        assertFalse(NatsConnection.subjectMatches("a.*", "a.b.c"));
+        assertFalse(NatsConnection.subjectMatches("a.>", "a"));
+        assertFalse(NatsConnection.subjectMatches("a.b", "a"));
+        assertFalse(NatsConnection.subjectMatches("a.b", "a.c"));
+        assertTrue(NatsConnection.subjectMatches("*.b.>", "a.b.c.d"));
+        assertTrue(NatsConnection.subjectMatches("a.*.c", "a.bb.c"));
+        assertFalse(NatsConnection.subjectMatches("a.*.c", "a.b"));
+        assertFalse(NatsConnection.subjectMatches("a.b", "a.b.c"));
+        assertFalse(NatsConnection.subjectMatches("a.b", "a.bc"));
+        assertFalse(NatsConnection.subjectMatches("ab.c", "a.c"));
+        assertFalse(NatsConnection.subjectMatches("*", "a.b"));
+
+        assertTrue(NatsConnection.neverEncoded("$JS.API.STREAM.INFO.s", "_INBOX."));
+        assertTrue(NatsConnection.neverEncoded("$KV.bucket.key", "_INBOX."));
+        assertTrue(NatsConnection.neverEncoded("$O.bucket.C.nuid", "_INBOX."));
+        assertTrue(NatsConnection.neverEncoded("_INBOX.reply", "my.inbox."));
+        assertTrue(NatsConnection.neverEncoded("my.inbox.reply", "my.inbox."));
+        assertFalse(NatsConnection.neverEncoded("events.created", "_INBOX."));
+        assertFalse(NatsConnection.neverEncoded("$JSX", "_INBOX."));
+
+        try (NatsTestServer ts = new NatsTestServer(false);
+                Connection nc = Nats.connect(new Options.Builder().server(ts.getURI())
+                    .payloadCodec(new DeflatePayloadCodec()).payloadCodecThreshold(0).payloadCodecSubjects("events.>").build());
+                Connection plain = Nats.connect(ts.getURI())) {
+            Subscription sub = plain.subscribe(">");
+            plain.flush(Duration.ofSeconds(1));
+            byte[] data = new byte[1000];
+
+            nc.publish("other", data);
+            nc.publish("events.created", data);
+            Message m = sub.nextMessage(Duration.ofSeconds(1));
+            assertEquals("other", m.getSubject());
+            assertFalse(m.hasHeaders());
+            m = sub.nextMessage(Duration.ofSeconds(1));
+            assertEquals("events.created", m.getSubject());
+            assertEquals(DeflatePayloadCodec.NAME, m.getHeaders().getFirst(PayloadCodec.CONTENT_ENCODING_HDR));
+        }
+
+        // a connection with the codec and a plain one interoperate on subjects not listed, and with none listed
+        try (NatsTestServer ts = new NatsTestServer(false);
+                Connection listed = Nats.connect(new Options.Builder().server(ts.getURI())
+                    .payloadCodec(new DeflatePayloadCodec()).payloadCodecThreshold(0).payloadCodecSubjects(">").build());
+                Connection none = Nats.connect(new Options.Builder().server(ts.getURI())
+                    .payloadCodec(new DeflatePayloadCodec()).payloadCodecThreshold(0).build());
+                Connection plain = Nats.connect(ts.getURI())) {
+            Subscription sub = plain.subscribe("plain");
+            Subscription inboxSub = plain.subscribe("_INBOX.plain");
+            plain.flush(Duration.ofSeconds(1));
+            byte[] data = new byte[1000];
+
+            none.publish("plain", data);
+            Message m = sub.nextMessage(Duration.ofSeconds(1));
+            assertArrayEquals(data, m.getData());
+            assertFalse(m.hasHeaders());
+
+            // a reply to a plain requester is sent as is even when every subject is listed
+            listed.publish("_INBOX.plain", data);
+            m = inboxSub.nextMessage(Duration.ofSeconds(1));
+            assertArrayEquals(data, m.getData());
+            assertFalse(m.hasHeaders());
+        }
+    }
+
     @Test
     public void testSimpleString() throws Exception {
         try (NatsTestServer ts = new NatsTestServer(false);
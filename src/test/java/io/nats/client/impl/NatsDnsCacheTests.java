@@ -0,0 +1,162 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NatsDnsCacheTests {
+
+    @Test
+    public void testCacheAndStaleWhileRefreshing() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        List<String> answer = new ArrayList<>(Collections.singletonList("10.0.0.1"));
+        List<Runnable> refreshes = new ArrayList<>();
+        NatsDnsCache cache = new NatsDnsCache(host -> {
+            lookups.incrementAndGet();
+            return answer;
+        }, refreshes::add);
+        long ttl = Duration.ofMinutes(1).toNanos();
+
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", ttl, Long.MAX_VALUE));
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", ttl, Long.MAX_VALUE));
+        assertEquals(1, lookups.get());
+        assertTrue(refreshes.isEmpty());
+
+        // stale, still answered from the cache, one refresh is started
+        answer.set(0, "10.0.0.2");
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        assertEquals(1, refreshes.size());
+        assertEquals(1, lookups.get());
+
+        refreshes.remove(0).run();
+        assertEquals(2, lookups.get());
+        assertEquals(Collections.singletonList("10.0.0.2"), cache.resolve("nats.example", ttl, Long.MAX_VALUE));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        Set<String> down = new HashSet<>();
+        NatsDnsCache cache = new NatsDnsCache(host -> {
+            lookups.incrementAndGet();
+            if (down.contains(host)) {
+                throw new UnknownHostException(host);
+            }
+            return host.startsWith("empty") ? Collections.emptyList() : Collections.singletonList("10.0.0.1");
+        }, Runnable::run);
+
+        // not cached and not resolved
+        down.add("nats.example");
+        assertThrows(UnknownHostException.class, () -> cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        assertThrows(UnknownHostException.class, () -> cache.resolve("empty.example", 0, Long.MAX_VALUE));
+        assertEquals(0, cache.size());
+
+        // a failed refresh keeps the addresses and is tried again the next time
+        down.clear();
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        down.add("nats.example");
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, Long.MAX_VALUE));
+        assertEquals(5, lookups.get());
+    }
+
+    @Test
+    public void testMaxStale() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        Set<String> down = new HashSet<>();
+        List<String> answer = new ArrayList<>(Collections.singletonList("10.0.0.1"));
+        List<Runnable> refreshes = new ArrayList<>();
+        NatsDnsCache cache = new NatsDnsCache(host -> {
+            lookups.incrementAndGet();
+            if (down.contains(host)) {
+                throw new UnknownHostException(host);
+            }
+            return answer;
+        }, refreshes::add);
+        long maxStale = Duration.ofMillis(200).toNanos();
+
+        // stale within the max stale time, a failed refresh keeps the addresses
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, maxStale));
+        down.add("nats.example");
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, maxStale));
+        assertEquals(1, refreshes.size());
+        refreshes.remove(0).run();
+        assertEquals(2, lookups.get());
+        assertEquals(Collections.singletonList("10.0.0.1"), cache.resolve("nats.example", 0, maxStale));
+        assertEquals(1, refreshes.size());
+
+        // past the max stale time the host is resolved and waited for, the failure is not hidden
+        Thread.sleep(300);
+        assertThrows(UnknownHostException.class, () -> cache.resolve("nats.example", 0, maxStale));
+        assertEquals(3, lookups.get());
+        assertThrows(UnknownHostException.class, () -> cache.resolve("nats.example", 0, maxStale));
+        assertEquals(4, lookups.get());
+
+        // and once it resolves again the new addresses are cached
+        down.clear();
+        answer.set(0, "10.0.0.2");
+        assertEquals(Collections.singletonList("10.0.0.2"), cache.resolve("nats.example", 0, maxStale));
+        assertEquals(5, lookups.get());
+        assertEquals(Collections.singletonList("10.0.0.2"), cache.resolve("nats.example", Long.MAX_VALUE, maxStale));
+        assertEquals(5, lookups.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testConcurrentMissesResolveOnce() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch inResolver = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NatsDnsCache cache = new NatsDnsCache(host -> {
+            lookups.incrementAndGet();
+            inResolver.countDown();
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new UnknownHostException(host);
+            }
+            return Collections.singletonList("10.0.0.1");
+        }, Runnable::run);
+
+        ExecutorService es = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            futures.add(es.submit(() -> cache.resolve("nats.example", Long.MAX_VALUE, Long.MAX_VALUE)));
+            assertTrue(inResolver.await(5, TimeUnit.SECONDS));
+            for (int x = 0; x < 3; x++) {
+                futures.add(es.submit(() -> cache.resolve("nats.example", Long.MAX_VALUE, Long.MAX_VALUE)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<String>> f : futures) {
+                assertEquals(Collections.singletonList("10.0.0.1"), f.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, lookups.get());
+        }
+        finally {
+            es.shutdownNow();
+        }
+    }
+}
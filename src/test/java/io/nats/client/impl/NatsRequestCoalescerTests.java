@@ -0,0 +1,114 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Message;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NatsRequestCoalescerTests {
+
+    @Test
+    public void testCoalesce() throws Exception {
+        NatsRequestCoalescer coalescer = new NatsRequestCoalescer();
+        AtomicInteger sent = new AtomicInteger();
+        CompletableFuture<Message> wire = new CompletableFuture<>();
+        Supplier<CompletableFuture<Message>> sender = () -> {
+            sent.incrementAndGet();
+            return wire;
+        };
+
+        CompletableFuture<Message> f1 = coalescer.request("subject", "data".getBytes(), sender);
+        CompletableFuture<Message> f2 = coalescer.request("subject", "data".getBytes(), sender);
+        CompletableFuture<Message> f3 = coalescer.request("subject", "data".getBytes(), sender);
+        assertEquals(1, sent.get());
+        assertEquals(1, coalescer.inFlightCount());
+
+        // different payload or subject is a different request
+        CompletableFuture<Message> other = new CompletableFuture<>();
+        coalescer.request("subject", "other".getBytes(), () -> other);
+        coalescer.request("other", "data".getBytes(), () -> other);
+        assertEquals(3, coalescer.inFlightCount());
+
+        // cancelling one caller does not affect the others
+        f2.cancel(true);
+
+        // every caller gets its own copy of the reply
+        Message reply = NatsMessage.builder().subject("reply").data("answer").build();
+        wire.complete(reply);
+        assertArrayEquals("answer".getBytes(), f1.get().getData());
+        assertArrayEquals("answer".getBytes(), f3.get().getData());
+        assertNotSame(reply, f1.get());
+        assertNotSame(f1.get().getData(), f3.get().getData());
+        f1.get().getData()[0] = 'X';
+        assertArrayEquals("answer".getBytes(), f3.get().getData());
+        assertTrue(f2.isCancelled());
+        assertEquals(2, coalescer.inFlightCount());
+
+        // done, so the next one goes out again
+        coalescer.request("subject", "data".getBytes(), sender);
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    public void testCoalesceKeepsItsOwnBody() {
+        NatsRequestCoalescer coalescer = new NatsRequestCoalescer();
+        CompletableFuture<Message> wire = new CompletableFuture<>();
+        byte[] body = "data".getBytes();
+        coalescer.request("subject", body, () -> wire);
+
+        // the caller reusing its array neither changes the outstanding request nor matches it
+        body[0] = 'X';
+        AtomicInteger sent = new AtomicInteger();
+        coalescer.request("subject", body, () -> {
+            sent.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertEquals(1, sent.get());
+        coalescer.request("subject", "data".getBytes(), () -> {
+            sent.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertEquals(1, sent.get());
+        assertEquals(2, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void testCoalesceFailures() {
+        NatsRequestCoalescer coalescer = new NatsRequestCoalescer();
+        CompletableFuture<Message> wire = new CompletableFuture<>();
+        CompletableFuture<Message> f1 = coalescer.request("subject", null, () -> wire);
+        CompletableFuture<Message> f2 = coalescer.request("subject", new byte[0], () -> wire);
+        wire.cancel(true); // what a request timeout does
+        assertTrue(f1.isCancelled());
+        assertTrue(f2.isCancelled());
+        assertEquals(0, coalescer.inFlightCount());
+
+        CompletableFuture<Message> failed = new CompletableFuture<>();
+        CompletableFuture<Message> f3 = coalescer.request("subject", null, () -> failed);
+        failed.completeExceptionally(new IllegalStateException());
+        ExecutionException ee = assertThrows(ExecutionException.class, f3::get);
+        assertTrue(ee.getCause() instanceof IllegalStateException);
+
+        assertThrows(IllegalStateException.class,
+            () -> coalescer.request("subject", null, () -> { throw new IllegalStateException("Connection is Closed"); }));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+}
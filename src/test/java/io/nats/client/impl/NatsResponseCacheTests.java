@@ -0,0 +1,92 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.impl;
+
+import io.nats.client.Message;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.nats.client.utils.TestBase.sleep;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NatsResponseCacheTests {
+
+    @Test
+    public void testTtlBySubject() {
+        Map<String, Duration> ttls = new LinkedHashMap<>();
+        ttls.put("ref.currency", Duration.ofMinutes(5));
+        ttls.put("ref.*", Duration.ofSeconds(30));
+        ttls.put("lookup.>", Duration.ofMillis(100));
+        NatsResponseCache cache = new NatsResponseCache(10, ttls);
+
+        assertEquals(Duration.ofMinutes(5).toNanos(), cache.ttlNanos("ref.currency"));
+        assertEquals(Duration.ofSeconds(30).toNanos(), cache.ttlNanos("ref.country"));
+        assertEquals(Duration.ofMillis(100).toNanos(), cache.ttlNanos("lookup.a.b"));
+        assertEquals(0, cache.ttlNanos("ref.country.code"));
+        assertEquals(0, cache.ttlNanos("orders"));
+    }
+
+    @Test
+    public void testGetPutExpire() {
+        NatsResponseCache cache = new NatsResponseCache(10, new LinkedHashMap<>());
+        Message reply = NatsMessage.builder().subject("reply").data("answer").build();
+        cache.put("subject", "key".getBytes(), reply, Duration.ofMillis(200).toNanos());
+        cache.put("subject", null, reply, Duration.ofMinutes(1).toNanos());
+
+        assertCopy(reply, cache.get("subject", "key".getBytes()));
+        assertCopy(reply, cache.get("subject", new byte[0])); // null and empty are the same payload
+        assertNull(cache.get("subject", "other".getBytes()));
+        assertNull(cache.get("other", "key".getBytes()));
+
+        // changing the data of a hit, or of the original reply, does not change the cache
+        cache.get("subject", null).getData()[0] = 'X';
+        reply.getData()[1] = 'Y';
+        assertEquals("answer", new String(cache.get("subject", null).getData()));
+
+        sleep(300);
+        assertNull(cache.get("subject", "key".getBytes()));
+        assertEquals(1, cache.size()); // the expired one is gone
+        assertNotNull(cache.get("subject", null));
+    }
+
+    private static void assertCopy(Message expected, Message actual) {
+        assertNotNull(actual);
+        assertNotSame(expected, actual);
+        assertNotSame(expected.getData(), actual.getData());
+        assertEquals(expected.getSubject(), actual.getSubject());
+        assertArrayEquals(expected.getData(), actual.getData());
+    }
+
+    @Test
+    public void testLruEviction() {
+        NatsResponseCache cache = new NatsResponseCache(3, new LinkedHashMap<>());
+        long ttl = Duration.ofMinutes(1).toNanos();
+        Message reply = NatsMessage.builder().subject("reply").data("answer").build();
+        cache.put("subject", "1".getBytes(), reply, ttl);
+        cache.put("subject", "2".getBytes(), reply, ttl);
+        cache.put("subject", "3".getBytes(), reply, ttl);
+
+        // using 1 makes 2 the least recently used
+        assertNotNull(cache.get("subject", "1".getBytes()));
+        cache.put("subject", "4".getBytes(), reply, ttl);
+        assertEquals(3, cache.size());
+        assertNull(cache.get("subject", "2".getBytes()));
+        assertNotNull(cache.get("subject", "1".getBytes()));
+        assertNotNull(cache.get("subject", "3".getBytes()));
+        assertNotNull(cache.get("subject", "4".getBytes()));
+    }
+}
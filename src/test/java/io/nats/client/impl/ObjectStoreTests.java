@@ -18,6 +18,9 @@ import io.nats.client.utils.TestBase;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.NoSuchAlgorithmException;
@@ -298,9 +301,32 @@ public class ObjectStoreTests extends JetStreamTestBase {
 
         oso = ObjectStoreOptions.builder().jsRequestTimeout(Duration.ofSeconds(10)).build();
         assertEquals(Duration.ofSeconds(10), oso.getJetStreamOptions().getRequestTimeout());
+
+        oso = ObjectStoreOptions.builder().maxPendingChunks(4).build();
+        assertEquals(4, oso.getMaxPendingChunks());
+        assertEquals(4, ObjectStoreOptions.builder(oso).build().getMaxPendingChunks());
+        oso = ObjectStoreOptions.builder().maxPendingChunks(0).build();
+        assertEquals(ObjectStoreOptions.DEFAULT_MAX_PENDING_CHUNKS, oso.getMaxPendingChunks());
+
+        oso = ObjectStoreOptions.builder().deduplicate(true).build();
+        assertTrue(oso.isDeduplicate());
+        assertTrue(ObjectStoreOptions.builder(oso).build().isDeduplicate());
+
+        File dir = new File("cache-dir");
+        oso = ObjectStoreOptions.builder().diskCacheDirectory(dir).diskCacheMaxBytes(1000).build();
+        assertEquals(dir, oso.getDiskCacheDirectory());
+        assertEquals(1000, oso.getDiskCacheMaxBytes());
+        assertEquals(dir, ObjectStoreOptions.builder(oso).build().getDiskCacheDirectory());
+        assertEquals(1000, ObjectStoreOptions.builder(oso).build().getDiskCacheMaxBytes());
+        oso = ObjectStoreOptions.builder().diskCacheMaxBytes(0).build();
+        assertEquals(ObjectStoreOptions.DEFAULT_DISK_CACHE_MAX_BYTES, oso.getDiskCacheMaxBytes());
     }
 
     private void assertOso(ObjectStoreOptions oso) {
+        assertEquals(ObjectStoreOptions.DEFAULT_MAX_PENDING_CHUNKS, oso.getMaxPendingChunks());
+        assertFalse(oso.isDeduplicate());
+        assertNull(oso.getDiskCacheDirectory());
+        assertEquals(ObjectStoreOptions.DEFAULT_DISK_CACHE_MAX_BYTES, oso.getDiskCacheMaxBytes());
         JetStreamOptions jso = oso.getJetStreamOptions();
         assertEquals(JetStreamOptions.DEFAULT_JS_OPTIONS.getRequestTimeout(), jso.getRequestTimeout());
         assertEquals(JetStreamOptions.DEFAULT_JS_OPTIONS.getPrefix(), jso.getPrefix());
@@ -308,6 +334,361 @@ public class ObjectStoreTests extends JetStreamTestBase {
         assertEquals(JetStreamOptions.DEFAULT_JS_OPTIONS.isPublishNoAck(), jso.isPublishNoAck());
     }
 
+    @Test
+    public void testPipelinedPut() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(bucket, ObjectStoreOptions.builder().maxPendingChunks(2).build());
+
+            byte[] input = new byte[10 * 1024 + 100];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)x;
+            }
+
+            // a stream that returns short reads still makes full chunks
+            InputStream trickle = new ByteArrayInputStream(input) {
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    return super.read(b, off, Math.min(len, 100));
+                }
+            };
+            ObjectInfo oi = os.put(ObjectMeta.builder("trickle").chunkSize(1024).build(), trickle);
+            assertEquals(input.length, oi.getSize());
+            assertEquals(11, oi.getChunks());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("trickle", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            // exact multiple of the chunk size
+            oi = os.put(ObjectMeta.builder("exact").chunkSize(1024).build(), new ByteArrayInputStream(input, 0, 4096));
+            assertEquals(4, oi.getChunks());
+
+            // empty
+            oi = os.put("empty", new byte[0]);
+            assertEquals(0, oi.getChunks());
+            assertEquals(0, oi.getSize());
+
+            // a chunk ack fails, the chunks that made it are purged
+            String small = bucket();
+            osm.create(ObjectStoreConfiguration.builder(small).storageType(StorageType.Memory).maxBucketSize(4000).build());
+            ObjectStore smallOs = nc.objectStore(small, ObjectStoreOptions.builder().maxPendingChunks(4).build());
+            assertThrows(Exception.class, () -> smallOs.put(ObjectMeta.builder("toobig").chunkSize(1024).build(), new ByteArrayInputStream(input)));
+            assertNull(smallOs.getInfo("toobig"));
+            assertEquals(0, nc.jetStreamManagement().getStreamInfo("OBJ_" + small).getStreamState().getMsgCount());
+        });
+    }
+
+    @Test
+    public void testPutFile() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(bucket);
+
+            byte[] input = new byte[2500];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)x;
+            }
+            File file = Files.createTempFile("put-file", ".bin").toFile();
+            file.deleteOnExit();
+            Files.write(file.toPath(), input);
+
+            ObjectInfo fromFile = os.put(ObjectMeta.builder("from-file").chunkSize(1000).build(), file);
+            ObjectInfo fromStream = os.put(ObjectMeta.builder("from-stream").chunkSize(1000).build(), new ByteArrayInputStream(input));
+            assertEquals(input.length, fromFile.getSize());
+            assertEquals(3, fromFile.getChunks());
+            assertEquals(fromStream.getDigest(), fromFile.getDigest());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("from-file", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            // empty file
+            File empty = Files.createTempFile("put-file-empty", ".bin").toFile();
+            empty.deleteOnExit();
+            ObjectInfo oi = os.put(empty);
+            assertEquals(empty.getName(), oi.getObjectName());
+            assertEquals(0, oi.getChunks());
+        });
+    }
+
+    @Test
+    public void testDiskCache() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            File dir = Files.createTempDirectory("os-cache").toFile();
+            dir.deleteOnExit();
+            ObjectStore os = nc.objectStore(bucket, ObjectStoreOptions.builder().diskCacheDirectory(dir).build());
+
+            byte[] input = new byte[2500];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)x;
+            }
+            ObjectInfo oi = os.put(ObjectMeta.builder("cached").chunkSize(1000).build(), new ByteArrayInputStream(input));
+            File cached = new File(dir, NatsObjectStoreDiskCache.fileName(oi.getDigest()));
+            cached.deleteOnExit();
+            assertFalse(cached.exists());
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("cached", baos);
+            assertArrayEquals(input, baos.toByteArray());
+            assertTrue(cached.exists());
+            assertEquals(input.length, cached.length());
+
+            // served from the file, the chunks are gone from the stream
+            nc.jetStreamManagement().purgeStream("OBJ_" + bucket, PurgeOptions.subject("$O." + bucket + ".C.>"));
+            baos = new ByteArrayOutputStream();
+            os.get("cached", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            // a file that does not match the info is not used
+            Files.write(cached.toPath(), new byte[10]);
+            assertThrows(Exception.class, () -> os.get("cached", new ByteArrayOutputStream()));
+            assertFalse(cached.exists());
+        });
+    }
+
+    @Test
+    public void testDiskCacheEviction() throws Exception {
+        File dir = Files.createTempDirectory("os-cache-evict").toFile();
+        dir.deleteOnExit();
+        NatsObjectStoreDiskCache cache = NatsObjectStoreDiskCache.forDirectory(dir, 250);
+        assertSame(cache, NatsObjectStoreDiskCache.forDirectory(dir, 1000));
+
+        ObjectInfo[] infos = new ObjectInfo[3];
+        for (int x = 0; x < infos.length; x++) {
+            byte[] data = new byte[100];
+            Arrays.fill(data, (byte)x);
+            infos[x] = ObjectInfo.builder("bucket", "object" + x).size(data.length).digest("SHA-256=digest" + x).build();
+            try (NatsObjectStoreDiskCache.Fill fill = cache.fill(infos[x], new ByteArrayOutputStream())) {
+                assertNotNull(fill);
+                fill.write(data);
+                fill.commit();
+            }
+            new File(dir, NatsObjectStoreDiskCache.fileName(infos[x].getDigest())).deleteOnExit();
+        }
+
+        // 0 was the least recently used when 2 was added
+        assertEquals(200, cache.getTotalBytes());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(cache.read(infos[2], out));
+        assertEquals(100, out.size());
+        assertEquals(2, out.toByteArray()[0]);
+        assertTrue(cache.read(infos[1], new ByteArrayOutputStream()));
+        assertFalse(cache.read(infos[0], new ByteArrayOutputStream()));
+
+        // not committed is not cached
+        ObjectInfo notCommitted = ObjectInfo.builder("bucket", "nc").size(1).digest("SHA-256=nc").build();
+        try (NatsObjectStoreDiskCache.Fill fill = cache.fill(notCommitted, new ByteArrayOutputStream())) {
+            fill.write(1);
+        }
+        assertFalse(cache.read(notCommitted, new ByteArrayOutputStream()));
+
+        // too big is not cached
+        assertNull(cache.fill(ObjectInfo.builder("bucket", "big").size(251).digest("SHA-256=big").build(), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testDeduplicate() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(bucket, ObjectStoreOptions.builder().deduplicate(true).build());
+
+            byte[] input = new byte[2500];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)x;
+            }
+            ObjectInfo first = os.put("first", input);
+            assertFalse(first.isLink());
+            long messages = nc.jetStreamManagement().getStreamInfo("OBJ_" + bucket).getStreamState().getMsgCount();
+
+            // same content, same name only publishes the meta
+            ObjectInfo again = os.put("first", input);
+            assertFalse(again.isLink());
+            assertEquals(first.getNuid(), again.getNuid());
+            assertEquals(first.getDigest(), again.getDigest());
+            assertEquals(messages + 1, nc.jetStreamManagement().getStreamInfo("OBJ_" + bucket).getStreamState().getMsgCount());
+
+            // same content, different name is uploaded, so deleting one does not affect the other
+            ObjectInfo second = os.put("second", input);
+            assertFalse(second.isLink());
+            assertNotEquals(first.getNuid(), second.getNuid());
+            os.delete("first");
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            os.get("second", baos);
+            assertArrayEquals(input, baos.toByteArray());
+
+            // files are deduplicated too
+            File file = Files.createTempFile("dedup-file", ".bin").toFile();
+            file.deleteOnExit();
+            Files.write(file.toPath(), input);
+            messages = nc.jetStreamManagement().getStreamInfo("OBJ_" + bucket).getStreamState().getMsgCount();
+            ObjectInfo fromFile = os.put(ObjectMeta.objectName("second"), file);
+            assertEquals(second.getNuid(), fromFile.getNuid());
+            assertEquals(messages + 1, nc.jetStreamManagement().getStreamInfo("OBJ_" + bucket).getStreamState().getMsgCount());
+
+            // different content is uploaded
+            input[0] = 42;
+            ObjectInfo different = os.put("second", input);
+            assertNotEquals(second.getNuid(), different.getNuid());
+            assertEquals(input.length, different.getSize());
+        });
+    }
+
+    @Test
+    public void testGetInputStream() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(bucket, ObjectStoreOptions.builder().maxPendingChunks(3).build());
+
+            byte[] input = new byte[20 * 1000 + 7];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)(x % 249);
+            }
+            os.put(ObjectMeta.builder("big").chunkSize(1000).build(), new ByteArrayInputStream(input));
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (InputStream in = os.getInputStream("big")) {
+                assertEquals(input[0] & 0xFF, in.read());
+                baos.write(input[0]);
+                byte[] buffer = new byte[333];
+                int red = in.read(buffer);
+                while (red != -1) {
+                    baos.write(buffer, 0, red);
+                    red = in.read(buffer);
+                }
+            }
+            assertArrayEquals(input, baos.toByteArray());
+
+            // closing early is fine, and the stream can't be read after
+            InputStream in = os.getInputStream("big");
+            assertEquals(1000, in.read(new byte[1000]));
+            in.close();
+            assertThrows(IOException.class, in::read);
+
+            // empty and linked objects
+            os.put("empty", new byte[0]);
+            try (InputStream empty = os.getInputStream("empty")) {
+                assertEquals(-1, empty.read());
+            }
+            os.addLink("link", os.getInfo("big"));
+            try (InputStream linked = os.getInputStream("link")) {
+                assertEquals(input.length, readAll(linked).length);
+            }
+
+            assertClientError(OsObjectNotFound, () -> os.getInputStream("notFound"));
+
+            // a digest mismatch fails the read of the last chunk and every read after it
+            ObjectInfo wrongDigest = ObjectInfo.builder(os.getInfo("big")).digest(os.getInfo("empty").getDigest()).build();
+            InputStream mismatch = new NatsObjectStoreInputStream((NatsObjectStore)os, wrongDigest, 3);
+            byte[] buffer = new byte[1000];
+            for (int x = 0; x < 20; x++) {
+                assertEquals(1000, mismatch.read(buffer));
+            }
+            IOException ioe = assertThrows(IOException.class, () -> mismatch.read(buffer));
+            assertTrue(ioe.getMessage().contains(OsGetDigestMismatch.id()));
+            assertThrows(IOException.class, () -> mismatch.read(buffer));
+            assertThrows(IOException.class, mismatch::read);
+            mismatch.close();
+        });
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int red = in.read(buffer);
+        while (red != -1) {
+            baos.write(buffer, 0, red);
+            red = in.read(buffer);
+        }
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testGetRange() throws Exception {
+        jsServer.run(nc -> {
+            ObjectStoreManagement osm = nc.objectStoreManagement();
+            String bucket = bucket();
+            osm.create(ObjectStoreConfiguration.builder(bucket).storageType(StorageType.Memory).build());
+            ObjectStore os = nc.objectStore(bucket, ObjectStoreOptions.builder().maxPendingChunks(3).build());
+
+            byte[] input = new byte[10 * 1000 + 123];
+            for (int x = 0; x < input.length; x++) {
+                input[x] = (byte)(x % 251);
+            }
+            os.put(ObjectMeta.builder("contiguous").chunkSize(1000).build(), new ByteArrayInputStream(input));
+
+            // interleave the chunks of two objects so the sequences are not contiguous
+            InputStream interleaving = new ByteArrayInputStream(input) {
+                @Override
+                public synchronized int read(byte[] b, int off, int len) {
+                    try {
+                        os.put("other" + pos, new byte[1]);
+                    }
+                    catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                    return super.read(b, off, len);
+                }
+            };
+            os.put(ObjectMeta.builder("interleaved").chunkSize(1000).build(), interleaving);
+
+            for (String name : Arrays.asList("contiguous", "interleaved")) {
+                assertArrayEquals(Arrays.copyOfRange(input, 0, 10), os.getRange(name, 0, 10));
+                assertArrayEquals(Arrays.copyOfRange(input, 990, 1010), os.getRange(name, 990, 20));
+                assertArrayEquals(Arrays.copyOfRange(input, 1500, 9500), os.getRange(name, 1500, 8000));
+                assertArrayEquals(input, os.getRange(name, 0, input.length));
+                // past the end is clipped
+                assertArrayEquals(Arrays.copyOfRange(input, 10100, input.length), os.getRange(name, 10100, 1000));
+                assertEquals(0, os.getRange(name, input.length, 10).length);
+                assertClientError(OsGetRangeInvalid, () -> os.getRange(name, input.length + 1, 10));
+                assertClientError(OsGetRangeInvalid, () -> os.getRange(name, -1, 10));
+
+                try (SeekableByteChannel channel = os.getChannel(name)) {
+                    assertEquals(input.length, channel.size());
+                    ByteBuffer bb = ByteBuffer.allocate(300);
+                    channel.position(5000);
+                    assertEquals(300, channel.read(bb));
+                    assertArrayEquals(Arrays.copyOfRange(input, 5000, 5300), bb.array());
+                    assertEquals(5300, channel.position());
+
+                    channel.position(input.length - 100);
+                    bb.clear();
+                    assertEquals(100, channel.read(bb));
+                    assertEquals(-1, channel.read(bb));
+
+                    // stream view from the start
+                    channel.position(0);
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    InputStream in = Channels.newInputStream(channel);
+                    byte[] buffer = new byte[777];
+                    int red = in.read(buffer);
+                    while (red != -1) {
+                        baos.write(buffer, 0, red);
+                        red = in.read(buffer);
+                    }
+                    assertArrayEquals(input, baos.toByteArray());
+                }
+            }
+
+            assertClientError(OsObjectNotFound, () -> os.getRange("notFound", 0, 1));
+
+            // through a link
+            os.addLink("link", os.getInfo("contiguous"));
+            assertArrayEquals(Arrays.copyOfRange(input, 2000, 2100), os.getRange("link", 2000, 100));
+        });
+    }
+
     @Test
     public void testObjectLinks() throws Exception {
         jsServer.run(nc -> {
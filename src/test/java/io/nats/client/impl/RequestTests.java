@@ -15,12 +15,16 @@ package io.nats.client.impl;
 
 import io.nats.client.*;
 import io.nats.client.support.NatsRequestCompletableFuture;
+import io.nats.client.support.NatsRequestUtil;
 import io.nats.client.utils.TestBase;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -65,6 +69,279 @@ public class RequestTests extends TestBase {
         }
     }
 
+    @Test
+    public void testRequestDeadline() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI()).requestDeadlineHeader().build());
+             Connection ncResponder = Nats.connect(new Options.Builder().server(ts.getURI()).discardExpiredRequests().build())) {
+            AtomicInteger handled = new AtomicInteger();
+            Dispatcher d = ncResponder.createDispatcher((msg) -> {
+                handled.incrementAndGet();
+                if (msg.getReplyTo() == null) {
+                    sleep(500); // something slow, requests wait behind it
+                }
+                else {
+                    ncResponder.publish(msg.getReplyTo(), msg.getHeaders(), null);
+                }
+            });
+            d.subscribe("subject");
+            ncResponder.flush(Duration.ofSeconds(1));
+
+            long before = System.currentTimeMillis();
+            Message reply = nc.request("subject", null, Duration.ofSeconds(2));
+            assertNotNull(reply);
+            long deadline = Long.parseLong(reply.getHeaders().getFirst(NatsRequestUtil.REQUEST_DEADLINE_HDR));
+            assertTrue(deadline >= before + 2000 && deadline <= System.currentTimeMillis() + 2000);
+
+            // no timeout, no deadline
+            reply = nc.request("subject", new Headers().put("foo", "bar"), null).get(2, TimeUnit.SECONDS);
+            assertNull(reply.getHeaders().getFirst(NatsRequestUtil.REQUEST_DEADLINE_HDR));
+
+            // expires while the dispatcher is busy, so it is discarded
+            nc.publish("subject", null);
+            assertNull(nc.request("subject", null, Duration.ofMillis(100)));
+            sleep(600);
+            assertEquals(1, d.getExpiredCount());
+            assertEquals(3, handled.get());
+        }
+    }
+
+    @Test
+    public void testExpiredRequestsCountTowardsUnsubscribeLimit() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI()).build());
+             Connection ncResponder = Nats.connect(new Options.Builder().server(ts.getURI()).discardExpiredRequests().build())) {
+            AtomicInteger handled = new AtomicInteger();
+            Dispatcher d = ncResponder.createDispatcher((msg) -> handled.incrementAndGet());
+            d.subscribe("subject");
+            d.unsubscribe("subject", 2);
+            ncResponder.flush(Duration.ofSeconds(1));
+
+            // the expired one is not handled but is the first of the two
+            Headers expired = new Headers().put(NatsRequestUtil.REQUEST_DEADLINE_HDR, Long.toString(System.currentTimeMillis() - 1000));
+            nc.publish("subject", "reply", expired, null);
+            nc.publish("subject", "reply", null);
+            nc.publish("subject", "reply", null);
+            nc.flush(Duration.ofSeconds(1));
+            sleep(500);
+
+            assertEquals(1, d.getExpiredCount());
+            assertEquals(1, handled.get());
+            assertEquals(2, d.getDeliveredCount());
+        }
+    }
+
+    @Test
+    public void testRequestMany() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI()).build())) {
+            for (int x = 0; x < 3; x++) {
+                String id = "" + x;
+                Dispatcher d = nc.createDispatcher(msg -> nc.publish(msg.getReplyTo(), id.getBytes()));
+                d.subscribe("many");
+            }
+            nc.flush(Duration.ofSeconds(1));
+
+            // stall stops it well before the max wait
+            long start = System.currentTimeMillis();
+            List<Message> replies = nc.requestMany("many", null, Duration.ofSeconds(10), 0, Duration.ofMillis(250));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+            assertEquals(3, replies.size());
+            Set<String> ids = new HashSet<>();
+            for (Message m : replies) {
+                ids.add(new String(m.getData()));
+            }
+            assertEquals(3, ids.size());
+
+            // max count
+            AtomicInteger handled = new AtomicInteger();
+            assertEquals(2, nc.requestMany("many", new Headers().put("foo", "bar"), null, Duration.ofSeconds(2), 2, null, m -> handled.incrementAndGet()));
+            assertEquals(2, handled.get());
+
+            // max wait
+            start = System.currentTimeMillis();
+            assertEquals(3, nc.requestMany("many", null, Duration.ofMillis(500), 0, null).size());
+            assertTrue(System.currentTimeMillis() - start >= 500);
+
+            // no responders
+            start = System.currentTimeMillis();
+            assertEquals(0, nc.requestMany("none", null, Duration.ofSeconds(10), 0, null).size());
+            assertTrue(System.currentTimeMillis() - start < 5000);
+
+            assertThrows(IllegalArgumentException.class, () -> nc.requestMany("many", null, null, 0, null));
+            assertThrows(IllegalArgumentException.class, () -> nc.requestMany("many", null, null, Duration.ofSeconds(1), 0, null, null));
+        }
+    }
+
+    @Test
+    public void testRequestCoalescing() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI()).requestCoalescing().build())) {
+            AtomicInteger received = new AtomicInteger();
+            Dispatcher d = nc.createDispatcher(msg -> {
+                received.incrementAndGet();
+                sleep(200); // slow, so the requests overlap
+                nc.publish(msg.getReplyTo(), msg.getData());
+            });
+            d.subscribe("lookup");
+            nc.flush(Duration.ofSeconds(1));
+
+            List<CompletableFuture<Message>> futures = new ArrayList<>();
+            for (int x = 0; x < 10; x++) {
+                futures.add(nc.requestWithTimeout("lookup", "key".getBytes(), Duration.ofSeconds(2)));
+            }
+            futures.add(nc.request("lookup", "other".getBytes()));
+            Message sync = nc.request("lookup", "key".getBytes(), Duration.ofSeconds(2));
+            for (CompletableFuture<Message> f : futures) {
+                assertNotNull(f.get(2, TimeUnit.SECONDS));
+            }
+            assertEquals("key", new String(sync.getData()));
+            assertEquals("other", new String(futures.get(10).get().getData()));
+
+            // one for key, one for other, requests with headers are never coalesced
+            assertEquals(2, received.get());
+            nc.request("lookup", new Headers().put("foo", "bar"), "key".getBytes(), Duration.ofSeconds(2));
+            assertEquals(3, received.get());
+        }
+    }
+
+    @Test
+    public void testResponseCache() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI())
+                 .responseCache("ref.*", Duration.ofMillis(500)).build())) {
+            AtomicInteger received = new AtomicInteger();
+            Dispatcher d = nc.createDispatcher(msg -> {
+                received.incrementAndGet();
+                nc.publish(msg.getReplyTo(), msg.getData());
+            });
+            d.subscribe("ref.*");
+            d.subscribe("orders");
+            nc.flush(Duration.ofSeconds(1));
+
+            for (int x = 0; x < 5; x++) {
+                assertEquals("usd", new String(nc.request("ref.currency", "usd".getBytes(), Duration.ofSeconds(2)).getData()));
+            }
+            assertEquals("eur", new String(nc.request("ref.currency", "eur".getBytes()).get(2, TimeUnit.SECONDS).getData()));
+            assertEquals(2, received.get());
+            assertEquals(4, nc.getStatistics().getResponseCacheHits());
+            assertEquals(2, nc.getStatistics().getResponseCacheMisses());
+
+            // other subjects and requests with headers are not cached
+            nc.request("orders", "usd".getBytes(), Duration.ofSeconds(2));
+            nc.request("orders", "usd".getBytes(), Duration.ofSeconds(2));
+            nc.request("ref.currency", new Headers().put("foo", "bar"), "usd".getBytes(), Duration.ofSeconds(2));
+            assertEquals(5, received.get());
+            assertEquals(4, nc.getStatistics().getResponseCacheHits());
+
+            // after the ttl it goes to the server again
+            sleep(600);
+            nc.request("ref.currency", "usd".getBytes(), Duration.ofSeconds(2));
+            assertEquals(6, received.get());
+            assertEquals(3, nc.getStatistics().getResponseCacheMisses());
+        }
+    }
+
+    @Test
+    public void testRequestHedging() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI())
+                 .requestHedgeDelay(Duration.ofMillis(100)).build())) {
+            // as if the first copy went to a stalled queue member and the hedge to a healthy one
+            AtomicInteger received = new AtomicInteger();
+            Dispatcher d = nc.createDispatcher(msg -> {
+                if (received.incrementAndGet() == 2) {
+                    nc.publish(msg.getReplyTo(), msg.getData());
+                }
+            });
+            d.subscribe("svc");
+            nc.flush(Duration.ofSeconds(1));
+
+            long start = System.currentTimeMillis();
+            Message m = nc.request("svc", "data".getBytes(), Duration.ofSeconds(5));
+            long elapsed = System.currentTimeMillis() - start;
+            assertNotNull(m);
+            assertEquals(2, received.get());
+            assertTrue(elapsed < 1000, "took " + elapsed);
+
+            // the losing copy does not wait for its reply
+            assertEquals(0, nc.getStatistics().getOutstandingRequests());
+
+            // fast replies are not hedged
+            Dispatcher fast = nc.createDispatcher(msg -> nc.publish(msg.getReplyTo(), msg.getData()));
+            fast.subscribe("fast");
+            nc.flush(Duration.ofSeconds(1));
+            AtomicInteger fastReceived = new AtomicInteger();
+            nc.createDispatcher(msg -> fastReceived.incrementAndGet()).subscribe("fast");
+            nc.request("fast", "data".getBytes(), Duration.ofSeconds(5));
+            sleep(300);
+            assertEquals(1, fastReceived.get());
+        }
+    }
+
+    @Test
+    public void testHedgedRequestFailsOnlyWhenEveryCopyFails() throws Exception {
+        NatsMessage reply = NatsMessage.builder().subject("reply").data("data".getBytes()).build();
+        Exception firstFailure = new RuntimeException("first");
+        Exception hedgeFailure = new RuntimeException("hedge");
+
+        // the first fails while the hedge is in flight, the hedge's reply still wins
+        NatsConnection.HedgedResult hedged = new NatsConnection.HedgedResult();
+        hedged.sending();
+        hedged.copyDone(null, firstFailure);
+        assertFalse(hedged.result.isDone());
+        hedged.copyDone(reply, null);
+        assertSame(reply, hedged.result.get());
+
+        // both fail, the result fails with the last failure
+        hedged = new NatsConnection.HedgedResult();
+        hedged.sending();
+        hedged.copyDone(null, firstFailure);
+        assertFalse(hedged.result.isDone());
+        hedged.copyDone(null, hedgeFailure);
+        assertTrue(hedged.result.isCompletedExceptionally());
+        CompletableFuture<Message> result = hedged.result;
+        ExecutionException ee = assertThrows(ExecutionException.class, result::get);
+        assertSame(hedgeFailure, ee.getCause());
+
+        // the first fails and the hedge is never sent
+        hedged = new NatsConnection.HedgedResult();
+        hedged.sending();
+        hedged.copyDone(null, firstFailure);
+        assertFalse(hedged.result.isDone());
+        hedged.notSent();
+        result = hedged.result;
+        ee = assertThrows(ExecutionException.class, result::get);
+        assertSame(firstFailure, ee.getCause());
+
+        // the first replies, a late failure of the hedge changes nothing
+        hedged = new NatsConnection.HedgedResult();
+        hedged.copyDone(reply, null);
+        hedged.sending();
+        hedged.copyDone(null, hedgeFailure);
+        assertSame(reply, hedged.result.get());
+    }
+
+    @Test
+    public void testHedgedRequestWithoutReplyFailsWithinTheTimeout() throws Exception {
+        try (NatsTestServer ts = new NatsTestServer(false);
+             Connection nc = Nats.connect(new Options.Builder().server(ts.getURI())
+                 .requestHedgeDelay(Duration.ofMillis(300)).build())) {
+            AtomicInteger received = new AtomicInteger();
+            nc.createDispatcher(msg -> received.incrementAndGet()).subscribe("silent");
+            nc.flush(Duration.ofSeconds(1));
+
+            // neither copy gets a reply, the caller waits the timeout and not the timeout plus the hedge delay
+            long start = System.currentTimeMillis();
+            CompletableFuture<Message> f = nc.requestWithTimeout("silent", "data".getBytes(), Duration.ofMillis(1000));
+            assertThrows(ExecutionException.class, () -> f.get(5, TimeUnit.SECONDS));
+            long elapsed = System.currentTimeMillis() - start;
+            assertTrue(elapsed < 1250, "took " + elapsed);
+            assertEquals(2, received.get());
+            assertEquals(0, nc.getStatistics().getOutstandingRequests());
+        }
+    }
+
     @Test
     public void testRequestVarieties() throws Exception {
         runInServer(nc -> {
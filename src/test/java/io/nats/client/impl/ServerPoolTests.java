@@ -18,7 +18,10 @@ import io.nats.client.support.NatsUri;
 import io.nats.client.utils.TestBase;
 import org.junit.jupiter.api.Test;
 
+import java.net.InetAddress;
+import java.net.ServerSocket;
 import java.net.URISyntaxException;
+import java.time.Duration;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -111,6 +114,84 @@ public class ServerPoolTests extends TestBase {
         validateNslp(nsp, null, false, BOOT_ONE, BOOT_TWO, DISC_ONE, DISC_TWO);
     }
 
+    @Test
+    public void testPreferLowLatencyServers() throws URISyntaxException {
+        NatsUri b1 = new NatsUri(BOOT_ONE);
+        NatsUri b2 = new NatsUri(BOOT_TWO);
+        NatsUri d1 = new NatsUri(DISC_ONE);
+        NatsUri d2 = new NatsUri(DISC_TWO);
+        Options o = new Options.Builder().noRandomize().preferLowLatencyServers()
+            .servers(new String[]{BOOT_ONE, BOOT_TWO, DISC_ONE, DISC_TWO}).build();
+        NatsServerPool nsp = newNatsServerPool(o, null, null);
+
+        // measured before not measured, nearest first
+        nsp.roundTripTimeMeasured(d2, Duration.ofMillis(2));
+        nsp.roundTripTimeMeasured(d1, Duration.ofMillis(1));
+        validateNslp(nsp, null, true, DISC_ONE, DISC_TWO, BOOT_ONE, BOOT_TWO);
+
+        // hysteresis, about as near does not reorder
+        nsp.roundTripTimeMeasured(b1, Duration.ofMillis(10));
+        nsp.roundTripTimeMeasured(b2, Duration.ofMillis(9));
+        validateNslp(nsp, null, true, DISC_ONE, DISC_TWO, BOOT_ONE, BOOT_TWO);
+
+        // clearly faster does, the measurements are smoothed
+        nsp.roundTripTimeMeasured(b2, Duration.ofMillis(1));
+        validateNslp(nsp, null, true, DISC_ONE, DISC_TWO, BOOT_TWO, BOOT_ONE);
+        for (int x = 0; x < 10; x++) {
+            nsp.roundTripTimeMeasured(b2, Duration.ofMillis(1));
+        }
+        validateNslp(nsp, null, true, DISC_ONE, BOOT_TWO, DISC_TWO, BOOT_ONE);
+
+        // the connected server stays first while it is clearly the nearest
+        assertEquals(d1, nsp.nextServer());
+        nsp.connectSucceeded(d1);
+        nsp.roundTripTimeMeasured(d1, Duration.ofMillis(1));
+        validateNslp(nsp, null, true, DISC_ONE, BOOT_TWO, DISC_TWO, BOOT_ONE);
+        assertEquals(d1, nsp.peekNextServer());
+
+        // and goes after the ones that are about as near or nearer once it gets slower
+        nsp.roundTripTimeMeasured(d1, Duration.ofMillis(10));
+        validateNslp(nsp, null, true, BOOT_TWO, DISC_TWO, DISC_ONE, BOOT_ONE);
+        assertEquals(b2, nsp.peekNextServer());
+
+        // failed servers go after the healthy ones
+        assertEquals(b2, nsp.nextServer());
+        nsp.connectFailed(b2);
+        nsp.roundTripTimeMeasured(d2, Duration.ofMillis(2));
+        validateNslp(nsp, null, true, DISC_TWO, DISC_ONE, BOOT_ONE, BOOT_TWO);
+
+        // without the option the measurements do not change the order
+        o = new Options.Builder().noRandomize().servers(new String[]{BOOT_ONE, BOOT_TWO}).build();
+        nsp = newNatsServerPool(o, null, null);
+        nsp.roundTripTimeMeasured(b2, Duration.ofMillis(1));
+        validateNslp(nsp, null, true, BOOT_ONE, BOOT_TWO);
+    }
+
+    @Test
+    public void testProbeServerLatencies() throws Exception {
+        // only the reachable server that is not connected to gets measured
+        try (ServerSocket serverSocket = new ServerSocket(0, 10, InetAddress.getByName("localhost"))) {
+            String reachable = "nats://localhost:" + serverSocket.getLocalPort();
+            String connected = "nats://127.0.0.1:" + serverSocket.getLocalPort();
+            Options o = new Options.Builder().noRandomize().preferLowLatencyServers()
+                .servers(new String[]{BOOT_ONE, connected, reachable}).build();
+            List<NatsUri> measured = new ArrayList<>();
+            NatsServerPool nsp = new NatsServerPool() {
+                @Override
+                public void roundTripTimeMeasured(NatsUri nuri, Duration rtt) {
+                    measured.add(nuri);
+                    super.roundTripTimeMeasured(nuri, rtt);
+                }
+            };
+            nsp.initialize(o);
+            NatsConnection.probeServerLatencies(nsp, new NatsUri(connected), 1000);
+            assertEquals(Collections.singletonList(new NatsUri(reachable)), measured);
+
+            // so it moves ahead of the ones not measured
+            validateNslp(nsp, null, true, reachable, BOOT_ONE, connected);
+        }
+    }
+
     @Test
     public void testResolvingHostname() throws URISyntaxException {
         // resolving host name is false
@@ -0,0 +1,38 @@
+package io.nats.client.impl;
+
+import io.nats.client.support.NatsUri;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SimulateLateConnectFailure extends SocketDataPort {
+    public static AtomicReference<String> FAIL_HOST = new AtomicReference<>();
+    public static AtomicBoolean CLOSED_WHILE_CONNECTING = new AtomicBoolean();
+
+    private volatile boolean inLateFailure;
+
+    @Override
+    public void connect(NatsConnection conn, NatsUri nuri, long timeoutNanos) throws IOException {
+        super.connect(conn, nuri, timeoutNanos);
+        if (nuri.getHost().equals(FAIL_HOST.get())) {
+            // connected, but the rest of the handshake takes a while and then fails
+            inLateFailure = true;
+            try {
+                Thread.sleep(1000);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Simulated Late Failure");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (inLateFailure) {
+            CLOSED_WHILE_CONNECTING.set(true);
+        }
+        super.close();
+    }
+}
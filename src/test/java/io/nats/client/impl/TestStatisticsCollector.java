@@ -91,6 +91,16 @@ public class TestStatisticsCollector implements StatisticsCollector {
         return 0;
     }
 
+    @Override
+    public long getResponseCacheHits() {
+        return 0;
+    }
+
+    @Override
+    public long getResponseCacheMisses() {
+        return 0;
+    }
+
     @Override
     public long getRepliesReceived() {
         return 0;
@@ -191,6 +201,16 @@ public class TestStatisticsCollector implements StatisticsCollector {
 
     }
 
+    @Override
+    public void incrementResponseCacheHits() {
+
+    }
+
+    @Override
+    public void incrementResponseCacheMisses() {
+
+    }
+
     @Override
     public void registerRead(long bytes) {
 
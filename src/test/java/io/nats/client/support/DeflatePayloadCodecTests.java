@@ -0,0 +1,91 @@
+// Copyright 2023 The NATS Authors
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at:
+//
+// http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package io.nats.client.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public final class DeflatePayloadCodecTests {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        DeflatePayloadCodec codec = new DeflatePayloadCodec();
+        assertEquals(DeflatePayloadCodec.NAME, codec.getName());
+
+        StringBuilder sb = new StringBuilder();
+        for (int x = 0; x < 1000; x++) {
+            sb.append("{\"event\":\"created\",\"id\":").append(x).append('}');
+        }
+        byte[] data = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = codec.encode(data);
+        assertTrue(encoded.length < data.length / 4);
+        assertArrayEquals(data, codec.decode(encoded));
+
+        // buffers are reused between calls
+        assertArrayEquals(data, codec.decode(codec.encode(data)));
+
+        byte[] empty = new byte[0];
+        assertArrayEquals(empty, codec.decode(codec.encode(empty)));
+
+        // bigger than the kept buffer and not compressible
+        byte[] random = new byte[3 * 1024 * 1024];
+        new Random(42).nextBytes(random);
+        assertArrayEquals(random, codec.decode(codec.encode(random)));
+
+        DeflatePayloadCodec fast = new DeflatePayloadCodec(Deflater.BEST_SPEED);
+        assertArrayEquals(data, codec.decode(fast.encode(data)));
+    }
+
+    @Test
+    public void testInvalid() {
+        DeflatePayloadCodec codec = new DeflatePayloadCodec();
+        assertThrows(IOException.class, () -> codec.decode("not deflated".getBytes(StandardCharsets.UTF_8)));
+
+        byte[] encoded = codec.encode("truncated truncated truncated".getBytes(StandardCharsets.UTF_8));
+        byte[] truncated = new byte[encoded.length / 2];
+        System.arraycopy(encoded, 0, truncated, 0, truncated.length);
+        assertThrows(IOException.class, () -> codec.decode(truncated));
+
+        assertThrows(IllegalArgumentException.class, () -> new DeflatePayloadCodec(10));
+        assertThrows(IllegalArgumentException.class, () -> new DeflatePayloadCodec(-2));
+        assertThrows(IllegalArgumentException.class, () -> new DeflatePayloadCodec(Deflater.DEFAULT_COMPRESSION, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DeflatePayloadCodec(Deflater.DEFAULT_COMPRESSION, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testMaxDecodedSize() throws IOException {
+        assertEquals(DeflatePayloadCodec.DEFAULT_MAX_DECODED_SIZE, new DeflatePayloadCodec().getMaxDecodedSize());
+
+        // a payload that inflates far beyond its own size
+        byte[] zeros = new byte[1024 * 1024];
+        DeflatePayloadCodec codec = new DeflatePayloadCodec(Deflater.DEFAULT_COMPRESSION, zeros.length);
+        byte[] encoded = codec.encode(zeros);
+        assertTrue(encoded.length < 2048);
+        assertArrayEquals(zeros, codec.decode(encoded));
+
+        DeflatePayloadCodec smaller = new DeflatePayloadCodec(Deflater.DEFAULT_COMPRESSION, zeros.length - 1);
+        assertThrows(IOException.class, () -> smaller.decode(encoded));
+        DeflatePayloadCodec tiny = new DeflatePayloadCodec(Deflater.DEFAULT_COMPRESSION, 10);
+        assertThrows(IOException.class, () -> tiny.decode(encoded));
+
+        // the codec still works after a payload that was too large
+        assertArrayEquals(new byte[10], tiny.decode(tiny.encode(new byte[10])));
+    }
+}
@@ -19,6 +19,8 @@ import io.nats.client.impl.JetStreamTestBase;
 import io.nats.client.impl.MockNatsConnection;
 import io.nats.client.impl.NatsMessage;
 import io.nats.client.support.DateTimeUtils;
+import io.nats.client.support.JsonParser;
+import io.nats.client.support.NatsRequestUtil;
 import io.nats.client.support.JsonSerializable;
 import io.nats.client.support.JsonUtils;
 import io.nats.client.support.JsonValue;
@@ -29,9 +31,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
@@ -241,6 +241,20 @@ public class ServiceTests extends JetStreamTestBase {
                 assertNull(discovery.stats(SERVICE_NAME_1, "badId"));
                 assertNull(discovery.stats("bad", "badId"));
 
+                // streaming discovery with stall detection, long max time so returning early shows the stall worked
+                discovery = new Discovery(clientNc, 10000, 100, 250);
+                long start = System.currentTimeMillis();
+                List<Object> streamed = new ArrayList<>();
+                assertEquals(2, discovery.ping(null, streamed::add));
+                assertTrue(System.currentTimeMillis() - start < 5000);
+                verifyDiscovery(streamed, pingVerifier, pingResponse1, pingResponse2);
+                streamed.clear();
+                assertEquals(1, discovery.info(SERVICE_NAME_1, streamed::add));
+                verifyDiscovery(streamed, infoVerifier, infoResponse1);
+                streamed.clear();
+                assertEquals(2, discovery.stats(null, streamed::add));
+                verifyDiscovery(streamed, statsVerifier, statsResponse1, statsResponse2);
+
                 // test reset
                 ZonedDateTime zdt = DateTimeUtils.gmtNow();
                 sleep(1);
@@ -570,6 +584,176 @@ public class ServiceTests extends JetStreamTestBase {
         assertTrue(iae.getMessage().contains("Endpoints cannot be null or empty"));
     }
 
+    @Test
+    public void testStopWaitsForInFlightWithOneDeadline() throws Exception {
+        Connection conn = new MockNatsConnection(new Options.Builder().build());
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceMessageHandler smh = m -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ignore) {}
+        };
+
+        // every endpoint has a request that does not finish
+        List<EndpointContext> contexts = new ArrayList<>();
+        for (int x = 0; x < 3; x++) {
+            ServiceEndpoint se = ServiceEndpoint.builder()
+                .endpoint(new Endpoint(name(x)))
+                .handler(smh)
+                .concurrency(2)
+                .build();
+            EndpointContext ctx = new EndpointContext(conn, null, false, se);
+            ctx.submit(NatsMessage.builder().subject(name(x)).build());
+            contexts.add(ctx);
+        }
+
+        // all of them together wait about the drain timeout, not the timeout for each
+        long start = System.nanoTime();
+        Service.awaitInFlight(contexts, Duration.ofMillis(500));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 450, "waited " + elapsedMillis);
+        assertTrue(elapsedMillis < 1000, "waited " + elapsedMillis);
+
+        release.countDown();
+        start = System.nanoTime();
+        Service.awaitInFlight(contexts, Duration.ofSeconds(5));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void testEndpointConcurrency() throws Exception {
+        Connection conn = new MockNatsConnection(new Options.Builder().build());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceMessageHandler smh = m -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException ignore) {}
+            running.decrementAndGet();
+        };
+
+        ServiceEndpoint se = ServiceEndpoint.builder()
+            .endpoint(new Endpoint(name(0)))
+            .handler(smh)
+            .concurrency(3)
+            .build();
+        assertEquals(3, se.getConcurrency());
+        assertNull(se.getExecutor());
+
+        EndpointContext ctx = new EndpointContext(conn, null, false, se);
+        for (int x = 0; x < 3; x++) {
+            ctx.submit(NatsMessage.builder().subject(name(0)).build());
+        }
+
+        // the fourth waits for a handler to finish
+        Thread t = new Thread(() -> {
+            try {
+                ctx.submit(NatsMessage.builder().subject(name(0)).build());
+            }
+            catch (InterruptedException ignore) {}
+        });
+        t.start();
+        t.join(200);
+        assertTrue(t.isAlive());
+
+        release.countDown();
+        t.join(5000);
+        assertFalse(t.isAlive());
+        ctx.awaitInFlight(5000);
+        assertEquals(3, maxRunning.get());
+        assertEquals(4, ctx.getEndpointStats().getNumRequests());
+
+        ExecutorService es = Executors.newSingleThreadExecutor();
+        se = ServiceEndpoint.builder()
+            .endpoint(new Endpoint(name(0)))
+            .handler(smh)
+            .executor(es)
+            .build();
+        assertEquals(0, se.getConcurrency());
+        assertEquals(es, se.getExecutor());
+        EndpointContext ctx2 = new EndpointContext(conn, null, false, se);
+        ctx2.submit(NatsMessage.builder().subject(name(0)).build());
+        ctx2.awaitInFlight(5000);
+        assertEquals(1, ctx2.getEndpointStats().getNumRequests());
+
+        // a shut down executor still handles the request, on the dispatcher thread
+        es.shutdown();
+        ctx2.submit(NatsMessage.builder().subject(name(0)).build());
+        assertEquals(2, ctx2.getEndpointStats().getNumRequests());
+    }
+
+    @Test
+    public void testEndpointLoadShedding() throws Exception {
+        Connection conn = new MockNatsConnection(new Options.Builder().build());
+        CountDownLatch release = new CountDownLatch(1);
+        ServiceEndpoint se = ServiceEndpoint.builder()
+            .endpoint(new Endpoint(name(0)))
+            .handler(m -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException ignore) {}
+            })
+            .concurrency(2)
+            .maxInFlight(2)
+            .maxPending(100)
+            .build();
+        assertEquals(2, se.getMaxInFlight());
+        assertEquals(100, se.getMaxPending());
+
+        EndpointContext ctx = new EndpointContext(conn, conn.createDispatcher(), false, se);
+        ctx.submit(NatsMessage.builder().subject(name(0)).build());
+        ctx.submit(NatsMessage.builder().subject(name(0)).build());
+
+        // at the max in flight, shed instead of waiting for a handler
+        ctx.submit(NatsMessage.builder().subject(name(0)).build());
+        ctx.submit(NatsMessage.builder().subject(name(0)).build());
+        assertEquals(2, ctx.getEndpointStats().getNumShed());
+
+        release.countDown();
+        ctx.awaitInFlight(5000);
+        ctx.submit(NatsMessage.builder().subject(name(0)).build());
+        ctx.awaitInFlight(5000);
+        EndpointStats es = ctx.getEndpointStats();
+        assertEquals(3, es.getNumRequests());
+        assertEquals(2, es.getNumShed());
+
+        ctx.reset();
+        assertEquals(0, ctx.getEndpointStats().getNumShed());
+    }
+
+    @Test
+    public void testEndpointExpiredRequests() throws Exception {
+        Connection conn = new MockNatsConnection(new Options.Builder().build());
+        AtomicInteger handled = new AtomicInteger();
+        ServiceEndpoint se = ServiceEndpoint.builder()
+            .endpoint(new Endpoint(name(0)))
+            .handler(m -> handled.incrementAndGet())
+            .build();
+        EndpointContext ctx = new EndpointContext(conn, null, false, se);
+
+        Headers expired = new Headers().put(NatsRequestUtil.REQUEST_DEADLINE_HDR, Long.toString(System.currentTimeMillis() - 1000));
+        ctx.onMessage(NatsMessage.builder().subject(name(0)).replyTo("reply").headers(expired).build());
+        assertEquals(0, handled.get());
+
+        Headers notExpired = NatsRequestUtil.withDeadline(null, Duration.ofSeconds(10));
+        ctx.onMessage(NatsMessage.builder().subject(name(0)).replyTo("reply").headers(notExpired).build());
+        // no reply to, not a request, so it can't expire
+        ctx.onMessage(NatsMessage.builder().subject(name(0)).headers(expired).build());
+        assertEquals(2, handled.get());
+
+        EndpointStats es = ctx.getEndpointStats();
+        assertEquals(1, es.getNumExpired());
+        assertEquals(2, es.getNumRequests());
+
+        ctx.reset();
+        assertEquals(0, ctx.getEndpointStats().getNumExpired());
+    }
+
     @Test
     public void testHandlerException() throws Exception {
         runInServer(nc -> {
@@ -814,7 +998,96 @@ public class ServiceTests extends JetStreamTestBase {
         assertTrue(j.contains("\"num_errors\":4"));
         assertTrue(j.contains("\"processing_time\":10"));
         assertTrue(j.contains("\"average_processing_time\":5"));
+        assertFalse(j.contains("num_shed"));
+        assertFalse(j.contains("num_expired"));
+        assertFalse(j.contains("processing_time_p50"));
+        assertFalse(j.contains("requests_per_second"));
         assertEquals(toKey(EndpointStats.class) + j, er.toString());
+
+        er = new EndpointStats("name", "subject", "queue", 2, 4, 9, 11, 10, 3, 6, 7, 8, 1.5, "lastError", data, zdt);
+        assertEquals(9, er.getNumShed());
+        assertEquals(11, er.getNumExpired());
+        assertEquals(3, er.getProcessingTimeP50());
+        assertEquals(6, er.getProcessingTimeP90());
+        assertEquals(7, er.getProcessingTimeP99());
+        assertEquals(8, er.getMaxProcessingTime());
+        assertEquals(1.5, er.getRequestsPerSecond());
+
+        j = er.toJson();
+        assertTrue(j.contains("\"num_shed\":9"));
+        assertTrue(j.contains("\"num_expired\":11"));
+        assertTrue(j.contains("\"processing_time_p50\":3"));
+        assertTrue(j.contains("\"processing_time_p90\":6"));
+        assertTrue(j.contains("\"processing_time_p99\":7"));
+        assertTrue(j.contains("\"max_processing_time\":8"));
+        assertTrue(j.contains("\"requests_per_second\":1.5"));
+        assertEquals(er, new EndpointStats(JsonParser.parseUnchecked(j)));
+    }
+
+    @Test
+    public void testLatencyRecorder() {
+        // every value is within one sub bucket, 1/16, of its bucket middle
+        for (long v = 0; v < 1_000_000; v += 7) {
+            long middle = LatencyRecorder.bucketMiddle(LatencyRecorder.bucket(v));
+            assertTrue(Math.abs(middle - v) <= Math.max(1, v / 16), "value " + v + " middle " + middle);
+        }
+        assertEquals(LatencyRecorder.bucket(Long.MAX_VALUE), LatencyRecorder.bucket(Long.MAX_VALUE - 1));
+
+        LatencyRecorder lr = new LatencyRecorder();
+        assertEquals(0, lr.getPercentile(50));
+        assertEquals(0, lr.getMax());
+        assertEquals(0, lr.getRequestsPerSecond());
+
+        for (int x = 1; x <= 1000; x++) {
+            lr.record(x * 1000L);
+        }
+        assertEquals(1_000_000, lr.getMax());
+        assertEquals(500_000, lr.getPercentile(50), 500_000 / 16.0);
+        assertEquals(900_000, lr.getPercentile(90), 900_000 / 16.0);
+        assertEquals(990_000, lr.getPercentile(99), 990_000 / 16.0);
+        assertTrue(lr.getPercentile(100) <= lr.getMax());
+
+        lr.reset();
+        assertEquals(0, lr.getPercentile(99));
+        assertEquals(0, lr.getMax());
+        assertEquals(0, lr.getRequestsPerSecond());
+    }
+
+    @Test
+    public void testLatencyRecorderCountsAcrossSecondsConcurrently() throws Exception {
+        // threads record across a second boundary, the thread that starts a new second
+        // must not lose or keep counts of the others
+        long start = System.nanoTime();
+        LatencyRecorder lr = new LatencyRecorder();
+        long recordUntil = start + 1_500_000_000L;
+        ExecutorService es = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(es.submit(() -> {
+                    long recorded = 0;
+                    while (System.nanoTime() - recordUntil < 0) {
+                        lr.record(1000);
+                        recorded++;
+                    }
+                    return recorded;
+                }));
+            }
+            long total = 0;
+            for (Future<Long> f : futures) {
+                total += f.get(5, TimeUnit.SECONDS);
+            }
+
+            // both seconds are complete, the rate is over them
+            long waitNanos = start + 2_500_000_000L - System.nanoTime();
+            if (waitNanos > 0) {
+                Thread.sleep(waitNanos / 1_000_000);
+            }
+            assertEquals(total / 2.0, lr.getRequestsPerSecond());
+        }
+        finally {
+            es.shutdownNow();
+        }
     }
 
     @Test